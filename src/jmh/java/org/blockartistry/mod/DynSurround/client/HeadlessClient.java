@@ -0,0 +1,178 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.blockartistry.mod.DynSurround.client;
+
+import java.lang.reflect.Field;
+
+import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
+
+import cpw.mods.fml.relauncher.ReflectionHelper;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.SoundCategory;
+import net.minecraft.client.audio.SoundHandler;
+import net.minecraft.client.entity.EntityClientPlayerMP;
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.AxisAlignedBB;
+import sun.misc.Unsafe;
+
+/*
+ * Stands in for the running client the benchmarks reach through
+ * Minecraft.getMinecraft(). Only vanilla objects are replaced; the mod
+ * classes under test are the real ones. Vanilla objects that cannot be
+ * built without a display or a game directory are allocated without
+ * running their constructors and only the fields the mod reads are set.
+ */
+public final class HeadlessClient {
+
+	// What the fake settings report for every sound category
+	public static final float CATEGORY_VOLUME = 0.8F;
+
+	private static final Unsafe UNSAFE = ReflectionHelper.getPrivateValue(Unsafe.class, null, "theUnsafe");
+	private static final Field tickCounter = ReflectionHelper.findField(EnvironState.class, "tickCounter");
+
+	private HeadlessClient() {
+	}
+
+	public static <T> T allocate(final Class<T> type) {
+		try {
+			return type.cast(UNSAFE.allocateInstance(type));
+		} catch (final InstantiationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Installs a client with the player standing at the position and
+	 * returns its sound handler. Call once per trial; the mod caches the
+	 * player the first time it asks for it.
+	 */
+	public static FakeSoundHandler install(final double x, final double y, final double z) {
+		final Minecraft mc = allocate(Minecraft.class);
+		mc.gameSettings = allocate(FakeGameSettings.class);
+
+		final EntityClientPlayerMP player = allocate(EntityClientPlayerMP.class);
+		player.posX = x;
+		player.posY = y;
+		player.posZ = z;
+		ReflectionHelper.setPrivateValue(Entity.class, player,
+				AxisAlignedBB.getBoundingBox(x - 0.3D, y, z - 0.3D, x + 0.3D, y + 1.8D, z + 0.3D), "boundingBox");
+		mc.thePlayer = player;
+
+		final FakeSoundHandler handler = new FakeSoundHandler(mc.gameSettings);
+		ReflectionHelper.setPrivateValue(Minecraft.class, mc, handler, "mcSoundHandler");
+		ReflectionHelper.setPrivateValue(Minecraft.class, null, mc, "theMinecraft");
+		return handler;
+	}
+
+	/*
+	 * The tick counter is normally advanced by EnvironStateHandler when
+	 * the client ticks.
+	 */
+	public static void setTickCounter(final int tick) {
+		try {
+			tickCounter.setInt(null, tick);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static final class FakeGameSettings extends GameSettings {
+
+		// Never called; instances are allocated
+		private FakeGameSettings() {
+			super(null, null);
+		}
+
+		@Override
+		public float getSoundLevel(final SoundCategory category) {
+			return CATEGORY_VOLUME;
+		}
+	}
+
+	/*
+	 * Maps each played sound to a source in the vanilla SoundManager the
+	 * way vanilla does when it hands the sound to the sound system, and
+	 * calls the hooks MixinSoundManager calls. Nothing reaches OpenAL:
+	 * every sound simply plays for a fixed number of ticks before its
+	 * source is released.
+	 */
+	public static final class FakeSoundHandler extends SoundHandler {
+
+		public static final int PLAY_TICKS = 20;
+
+		// More sources than there are channels, so a name is not reused
+		// while it is still playing
+		private static final int SOURCES = 256;
+
+		private final String[] sources = new String[SOURCES];
+		private final int[] releaseTick = new int[SOURCES];
+		private int head;
+		private int tail;
+		private int tick;
+
+		FakeSoundHandler(final GameSettings settings) {
+			super(null, settings);
+			for (int i = 0; i < SOURCES; i++)
+				this.sources[i] = "source" + i;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void playSound(final ISound sound) {
+			if (sound == null || this.sndManager.playingSounds.containsValue(sound))
+				return;
+			if (this.tail - this.head == SOURCES)
+				release();
+			final int slot = this.tail++ & (SOURCES - 1);
+			this.sndManager.playingSounds.put(this.sources[slot], sound);
+			this.releaseTick[slot] = this.tick + PLAY_TICKS;
+			SoundManager.soundSubmitted(this.sources[slot], sound);
+			SoundManager.flushSound();
+		}
+
+		private void release() {
+			final String source = this.sources[this.head++ & (SOURCES - 1)];
+			this.sndManager.playingSounds.remove(source);
+			SoundManager.soundReleased(source);
+		}
+
+		/*
+		 * Releases the sources of the sounds that finished by the tick.
+		 */
+		public void advance(final int tick) {
+			this.tick = tick;
+			while (this.head != this.tail && this.releaseTick[this.head & (SOURCES - 1)] <= tick)
+				release();
+		}
+
+		public void reset() {
+			this.sndManager.playingSounds.clear();
+			this.head = this.tail = 0;
+			SoundManager.soundsCleared();
+		}
+	}
+}
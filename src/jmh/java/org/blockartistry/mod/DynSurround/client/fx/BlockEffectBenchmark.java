@@ -0,0 +1,423 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.fx;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.blockartistry.mod.DynSurround.client.HeadlessClient;
+import org.blockartistry.mod.DynSurround.compat.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProvider;
+import net.minecraft.world.chunk.IChunkProvider;
+
+/*
+ * Block probe around the player through the effect contract that took a
+ * BlockPos against the current one that takes primitive coordinates. The
+ * effect chains hold five effect types, the same checks JetEffect makes,
+ * so the trigger call site is megamorphic and a BlockPos passed to it
+ * cannot be scalar replaced: the BlockPos contract allocates 24 bytes
+ * per probe, the primitive one nothing. Run with the GC profiler to see
+ * the allocation rate of each:
+ *
+ *   ./gradlew jmh -PjmhArgs="-prof gc BlockEffect"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockEffectBenchmark {
+
+	private static final long SEED = 0xB10C_EFFEL;
+	private static final int WORLD_BITS = 5;
+	private static final int RANGE = 24;
+	private static final int CHANCE = 100;
+	private static final int TABLE_SIZE = 4096;
+	private static final BlockEffect[] NO_EFFECTS = {};
+	private static final LegacyBlockEffect[] NO_LEGACY_EFFECTS = {};
+
+	// The vanilla Blocks are only filled in once the game has registered
+	// its blocks, so the benchmark has its own
+	static final Block AIR = new Block(Material.air) {
+	};
+	static final Block STONE = new Block(Material.rock) {
+	};
+	static final Block WATER = new Block(Material.water) {
+	};
+	static final Block LAVA = new Block(Material.lava) {
+	};
+
+	// Written by the effects so that firing one is not dead code
+	static int spawned;
+
+	/*
+	 * A cube of blocks that repeats in every direction. Allocated without
+	 * running the World constructor, which needs a save handler and a
+	 * world provider.
+	 */
+	static final class GridWorld extends World {
+
+		private Block[] blocks;
+		private int bits;
+		private int mask;
+
+		// Never called; instances are allocated
+		private GridWorld() {
+			super(null, null, (WorldProvider) null, null, null);
+		}
+
+		/*
+		 * The array holds (1 << bits) blocks per side, indexed y, z, x.
+		 */
+		static GridWorld create(final Block[] blocks, final int bits) {
+			final GridWorld world = HeadlessClient.allocate(GridWorld.class);
+			world.blocks = blocks;
+			world.bits = bits;
+			world.mask = (1 << bits) - 1;
+			return world;
+		}
+
+		@Override
+		public Block getBlock(final int x, final int y, final int z) {
+			return this.blocks[((((y & this.mask) << this.bits) | (z & this.mask)) << this.bits) | (x & this.mask)];
+		}
+
+		@Override
+		public int getBlockMetadata(final int x, final int y, final int z) {
+			return 0;
+		}
+
+		@Override
+		protected IChunkProvider createChunkProvider() {
+			return null;
+		}
+
+		@Override
+		public Entity getEntityByID(final int id) {
+			return null;
+		}
+
+		@Override
+		protected int func_152379_p() {
+			return 0;
+		}
+	}
+
+	/*
+	 * The effect contract before it took primitive coordinates.
+	 */
+	abstract static class LegacyBlockEffect {
+
+		private final int chance;
+
+		LegacyBlockEffect(final int chance) {
+			this.chance = chance;
+		}
+
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return random.nextInt(this.chance) == 0;
+		}
+
+		public abstract void doEffect(final Block block, final World world, final BlockPos pos, final Random random);
+	}
+
+	private static int lavaCount(final World world, final int x, final int y, final int z) {
+		int blockCount = 0;
+		for (int i = -1; i <= 1; i++)
+			for (int j = -1; j <= 1; j++)
+				for (int k = -1; k <= 1; k++)
+					if (world.getBlock(x + i, y + j, z + k) == LAVA)
+						blockCount++;
+		return blockCount;
+	}
+
+	static final class FireJet extends BlockEffect {
+		FireJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random) && world.isAirBlock(x, y + 1, z);
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			spawned += x + y + z;
+		}
+	}
+
+	static final class BubbleJet extends BlockEffect {
+		BubbleJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random) && !world.isAirBlock(x, y - 1, z);
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			spawned += x + y + z;
+		}
+	}
+
+	static final class SteamJet extends BlockEffect {
+		SteamJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random) && world.isAirBlock(x, y + 1, z)
+					&& lavaCount(world, x, y, z) != 0;
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			spawned += lavaCount(world, x, y, z);
+		}
+	}
+
+	static final class DustJet extends BlockEffect {
+		DustJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random) && world.isAirBlock(x, y - 1, z);
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			spawned += x + y + z;
+		}
+	}
+
+	static final class FountainJet extends BlockEffect {
+		FountainJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random) && world.isAirBlock(x, y + 1, z);
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			spawned += x + y + z;
+		}
+	}
+
+	static final class LegacyFireJet extends LegacyBlockEffect {
+		LegacyFireJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ());
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
+			spawned += pos.getX() + pos.getY() + pos.getZ();
+		}
+	}
+
+	static final class LegacyBubbleJet extends LegacyBlockEffect {
+		LegacyBubbleJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return super.trigger(block, world, pos, random)
+					&& !world.isAirBlock(pos.getX(), pos.getY() - 1, pos.getZ());
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
+			spawned += pos.getX() + pos.getY() + pos.getZ();
+		}
+	}
+
+	static final class LegacySteamJet extends LegacyBlockEffect {
+		LegacySteamJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ())
+					&& lavaCount(world, pos.getX(), pos.getY(), pos.getZ()) != 0;
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
+			spawned += lavaCount(world, pos.getX(), pos.getY(), pos.getZ());
+		}
+	}
+
+	static final class LegacyDustJet extends LegacyBlockEffect {
+		LegacyDustJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() - 1, pos.getZ());
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
+			spawned += pos.getX() + pos.getY() + pos.getZ();
+		}
+	}
+
+	static final class LegacyFountainJet extends LegacyBlockEffect {
+		LegacyFountainJet() {
+			super(CHANCE);
+		}
+
+		@Override
+		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ());
+		}
+
+		@Override
+		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
+			spawned += pos.getX() + pos.getY() + pos.getZ();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Probe {
+
+		final Random random = new Random(SEED);
+		final Map<Block, BlockEffect[]> effects = new IdentityHashMap<>();
+		final Map<Block, LegacyBlockEffect[]> legacyEffects = new IdentityHashMap<>();
+		final int[] coords = new int[TABLE_SIZE * 3];
+		World world;
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			final Random rand = new Random(SEED);
+			final int side = 1 << WORLD_BITS;
+			final Block[] blocks = new Block[side * side * side];
+			for (int i = 0; i < blocks.length; i++) {
+				final int roll = rand.nextInt(10);
+				blocks[i] = roll < 4 ? AIR : roll < 7 ? STONE : roll < 9 ? WATER : LAVA;
+			}
+			this.world = GridWorld.create(blocks, WORLD_BITS);
+
+			this.effects.put(STONE, new BlockEffect[] { new DustJet() });
+			this.effects.put(WATER, new BlockEffect[] { new BubbleJet(), new SteamJet(), new FountainJet() });
+			this.effects.put(LAVA, new BlockEffect[] { new FireJet() });
+			this.legacyEffects.put(STONE, new LegacyBlockEffect[] { new LegacyDustJet() });
+			this.legacyEffects.put(WATER,
+					new LegacyBlockEffect[] { new LegacyBubbleJet(), new LegacySteamJet(), new LegacyFountainJet() });
+			this.legacyEffects.put(LAVA, new LegacyBlockEffect[] { new LegacyFireJet() });
+
+			final int span = RANGE * 2 - 1;
+			for (int i = 0; i < this.coords.length; i++)
+				this.coords[i] = rand.nextInt(span) - RANGE + 1;
+		}
+
+		int nextIndex() {
+			final int idx = this.next;
+			this.next = (idx + 3) % this.coords.length;
+			return idx;
+		}
+	}
+
+	/*
+	 * Baseline: a fresh BlockPos per probe handed to trigger and doEffect.
+	 */
+	@Benchmark
+	public int blockPos(final Probe state) {
+		final int idx = state.nextIndex();
+		final BlockPos pos = new BlockPos(state.coords[idx], 64 + state.coords[idx + 1], state.coords[idx + 2]);
+		final Block block = state.world.getBlock(pos.getX(), pos.getY(), pos.getZ());
+		final LegacyBlockEffect[] chain = state.legacyEffects.getOrDefault(block, NO_LEGACY_EFFECTS);
+		for (int i = 0; i < chain.length; i++) {
+			final LegacyBlockEffect effect = chain[i];
+			if (effect.trigger(block, state.world, pos, state.random))
+				effect.doEffect(block, state.world, pos, state.random);
+		}
+		return spawned;
+	}
+
+	/*
+	 * Current contract: the coordinates are passed as ints.
+	 */
+	@Benchmark
+	public int primitive(final Probe state) {
+		final int idx = state.nextIndex();
+		final int x = state.coords[idx];
+		final int y = 64 + state.coords[idx + 1];
+		final int z = state.coords[idx + 2];
+		final Block block = state.world.getBlock(x, y, z);
+		final BlockEffect[] chain = state.effects.getOrDefault(block, NO_EFFECTS);
+		for (int i = 0; i < chain.length; i++) {
+			final BlockEffect effect = chain[i];
+			if (effect.trigger(block, state.world, x, y, z, state.random))
+				effect.doEffect(block, state.world, x, y, z, state.random);
+		}
+		return spawned;
+	}
+}
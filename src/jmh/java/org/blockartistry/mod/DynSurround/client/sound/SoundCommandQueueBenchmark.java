@@ -0,0 +1,186 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Contention between the client thread and worker threads playing sounds
+ * through the vanilla SoundManager. Both groups drive the Target below, a
+ * toy with the shape of the vanilla manager, not the transformed class
+ * itself; what differs is the locking and queuing around it. The "locked"
+ * group is the sound command queue turned off: every public method is
+ * synchronized by PatchSoundManagerSync and runs on the calling thread.
+ * The "queued" group is the queue turned on: the methods are still
+ * synchronized, but calls off the client thread are routed through
+ * SoundCommandQueue the way MixinSoundManager does. In both groups the
+ * client thread plays a sound and updates every invocation while three
+ * workers play sounds with some work in between. In the queued group the
+ * client timings include replaying what the workers queued, so compare
+ * both threads of a group.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoundCommandQueueBenchmark {
+
+	// Normal channels vanilla configures
+	private static final int CHANNELS = 28;
+
+	/*
+	 * Stand-in for the vanilla SoundManager: a fixed number of channels
+	 * with the oldest sound dropped when they are all in use, and an
+	 * update that walks every playing sound.
+	 */
+	static class Target {
+
+		private final ArrayDeque<Object> playing = new ArrayDeque<>();
+		private int state;
+
+		public void playSound(final Object sound) {
+			this.playing.addLast(sound);
+			if (this.playing.size() > CHANNELS)
+				this.playing.removeFirst();
+		}
+
+		public int updateAllSounds() {
+			for (final Object sound : this.playing)
+				this.state += sound.hashCode();
+			return this.state;
+		}
+	}
+
+	static final class LockedTarget extends Target {
+
+		@Override
+		public synchronized void playSound(final Object sound) {
+			super.playSound(sound);
+		}
+
+		@Override
+		public synchronized int updateAllSounds() {
+			return super.updateAllSounds();
+		}
+	}
+
+	static final class QueuedTarget extends Target {
+
+		@Override
+		public synchronized void playSound(final Object sound) {
+			if (!SoundCommandQueue.defer(() -> super.playSound(sound)))
+				super.playSound(sound);
+		}
+
+		@Override
+		public synchronized int updateAllSounds() {
+			if (SoundCommandQueue.defer(super::updateAllSounds))
+				return 0;
+			SoundCommandQueue.drain();
+			return super.updateAllSounds();
+		}
+	}
+
+	@State(Scope.Group)
+	public static class Locked {
+		final Target target = new LockedTarget();
+	}
+
+	@State(Scope.Group)
+	public static class Queued {
+		final Target target = new QueuedTarget();
+	}
+
+	@State(Scope.Thread)
+	public static class ClientThread {
+
+		final Object sound = new Object();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			SoundCommandQueue.setOwner(Thread.currentThread());
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class WorkerThread {
+
+		// Work done by a worker between two sounds, in Blackhole tokens
+		@Param({ "50", "500" })
+		public int work;
+
+		final Object sound = new Object();
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(1)
+	public int lockedClient(final Locked state, final ClientThread client) {
+		state.target.playSound(client.sound);
+		return state.target.updateAllSounds();
+	}
+
+	@Benchmark
+	@Group("locked")
+	@GroupThreads(3)
+	public void lockedWorker(final Locked state, final WorkerThread worker) {
+		Blackhole.consumeCPU(worker.work);
+		state.target.playSound(worker.sound);
+	}
+
+	@Benchmark
+	@Group("queued")
+	@GroupThreads(1)
+	public int queuedClient(final Queued state, final ClientThread client) {
+		state.target.playSound(client.sound);
+		return state.target.updateAllSounds();
+	}
+
+	@Benchmark
+	@Group("queued")
+	@GroupThreads(3)
+	public void queuedWorker(final Queued state, final WorkerThread worker) {
+		Blackhole.consumeCPU(worker.work);
+		state.target.playSound(worker.sound);
+	}
+}
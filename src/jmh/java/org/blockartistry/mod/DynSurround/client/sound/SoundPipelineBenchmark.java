@@ -0,0 +1,236 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.client.HeadlessClient;
+import org.blockartistry.mod.DynSurround.client.SoundBlockHandler;
+import org.blockartistry.mod.DynSurround.data.SoundRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.client.audio.SoundCategory;
+import net.minecraft.client.audio.SoundPoolEntry;
+import net.minecraft.util.ResourceLocation;
+
+/*
+ * Drives the mod's sound pipeline with a synthetic, seeded workload that
+ * mirrors a busy scene: 30 ambient emitters reconciled every tick, 200
+ * spot sounds a second, and the per play volume and cull/block checks.
+ * Everything from SoundManager down is the mod's own code; the vanilla
+ * sound handler it plays through is the fake in HeadlessClient.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoundPipelineBenchmark {
+
+	private static final long SEED = 0x5EED_50D5L;
+	private static final int EMITTERS = 30;
+	private static final int SPOTS_PER_TICK = 10;
+	private static final int MAX_DELAY = 60;
+	private static final int SOUND_NAMES = 16;
+	// Plays checked per tick by the cull/block benchmark
+	private static final int PLAYS_PER_TICK = 16;
+	// Large enough that the JIT cannot fold the random tables
+	private static final int TABLE_SIZE = 4096;
+
+	private static final String[] CULL_BLOCK_NAMES = { "dsurround:bison", "dsurround:insectbuzz",
+			"minecraft:liquid.water", "minecraft:liquid.lava", "minecraft:mob.sheep.say", "minecraft:random.click",
+			"minecraft:dig.stone", "minecraft:step.grass" };
+
+	@State(Scope.Thread)
+	public static class Ambient {
+
+		final SoundEffect[] effects = new SoundEffect[EMITTERS * 2];
+		final float[] volumes = new float[TABLE_SIZE];
+		HeadlessClient.FakeSoundHandler handler;
+		int tick;
+		int offset;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.handler = HeadlessClient.install(0.5D, 64.0D, 0.5D);
+			final Random random = new Random(SEED);
+			for (int i = 0; i < this.effects.length; i++)
+				this.effects[i] = new SoundEffect("dsurround:benchmark.ambient." + i);
+			for (int i = 0; i < this.volumes.length; i++)
+				this.volumes[i] = 0.5F + random.nextFloat() * 0.5F;
+			SoundManager.clearSounds();
+			VoiceAllocator.clear();
+			this.handler.reset();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Spot {
+
+		final SoundEffect[] effects = new SoundEffect[SPOTS_PER_TICK];
+		final int[] offsets = new int[TABLE_SIZE];
+		HeadlessClient.FakeSoundHandler handler;
+		int tick;
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.handler = HeadlessClient.install(0.5D, 64.0D, 0.5D);
+			final Random random = new Random(SEED);
+			for (int i = 0; i < this.effects.length; i++)
+				this.effects[i] = new SoundEffect("dsurround:benchmark.spot." + i);
+			for (int i = 0; i < this.offsets.length; i++)
+				this.offsets[i] = random.nextInt(32) - 16;
+			SoundManager.clearSounds();
+			VoiceAllocator.clear();
+			this.handler.reset();
+		}
+
+		int nextOffset() {
+			return this.offsets[this.next++ & (TABLE_SIZE - 1)];
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Volume {
+
+		final SpotSound[] sounds = new SpotSound[TABLE_SIZE];
+		final SoundPoolEntry[] entries = new SoundPoolEntry[TABLE_SIZE];
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			HeadlessClient.install(0.5D, 64.0D, 0.5D);
+			ModOptions.soundVolumes = new String[] { "dsurround:benchmark.volume.0=50",
+					"dsurround:benchmark.volume.1=150", "dsurround:benchmark.volume.2=0" };
+			SoundRegistry.initialize();
+
+			final Random random = new Random(SEED);
+			final SoundEffect[] effects = new SoundEffect[SOUND_NAMES];
+			for (int i = 0; i < effects.length; i++)
+				effects[i] = new SoundEffect("dsurround:benchmark.volume." + i, 0.5F + random.nextFloat(), 1.0F);
+			for (int i = 0; i < TABLE_SIZE; i++) {
+				final SoundEffect effect = effects[random.nextInt(effects.length)];
+				this.sounds[i] = new SpotSound(random.nextInt(32), 64, random.nextInt(32), effect, 0,
+						VoiceAllocator.Category.BLOCK);
+				this.entries[i] = new SoundPoolEntry(effect.location, 1.0D, 0.5D + random.nextDouble(), false);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class CullBlock {
+
+		final ResourceLocation[] sounds = new ResourceLocation[TABLE_SIZE];
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			// The configured defaults block two of the names and cull three
+			ModOptions.soundVolumes = new String[0];
+			SoundRegistry.initialize();
+
+			final Random random = new Random(SEED);
+			for (int i = 0; i < TABLE_SIZE; i++)
+				this.sounds[i] = new ResourceLocation(CULL_BLOCK_NAMES[random.nextInt(CULL_BLOCK_NAMES.length)]);
+		}
+	}
+
+	/*
+	 * Ambient sounds, per tick: the set of emitters mostly stays the same
+	 * with the volumes drifting; every five seconds a few sounds swap out
+	 * as if the player crossed a biome border. The emitters that need a
+	 * channel are pushed through the voice allocator and played.
+	 */
+	@Benchmark
+	public int ambientTick(final Ambient state) {
+		final int tick = ++state.tick;
+		HeadlessClient.setTickCounter(tick);
+		state.handler.advance(tick);
+		if (tick % 100 == 0)
+			state.offset = (state.offset + 5) % EMITTERS;
+		final int base = tick * EMITTERS;
+		SoundManager.beginAmbientSounds();
+		for (int i = 0; i < EMITTERS; i++)
+			SoundManager.queueAmbientSound(state.effects[i + state.offset],
+					state.volumes[(base + i) & (TABLE_SIZE - 1)]);
+		SoundManager.endAmbientSounds();
+		SoundManager.update();
+		return SoundManager.currentSoundCount();
+	}
+
+	/*
+	 * Spot sounds, per sound: block sounds around the player with a spread
+	 * of delays, queued through SoundManager.playSoundAt and played from
+	 * the timing wheel as they come due.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SPOTS_PER_TICK)
+	public int spotSoundQueuing(final Spot state) {
+		final int tick = ++state.tick;
+		HeadlessClient.setTickCounter(tick);
+		state.handler.advance(tick);
+		SoundManager.update();
+		for (int i = 0; i < SPOTS_PER_TICK; i++) {
+			final int x = state.nextOffset();
+			final int y = state.nextOffset() >> 2;
+			final int z = state.nextOffset();
+			final int delay = (state.nextOffset() + 16) * MAX_DELAY / 32;
+			SoundManager.playSoundAt(x, 64 + y, z, state.effects[i], delay);
+		}
+		return SoundManager.currentSoundCount();
+	}
+
+	/*
+	 * The volume vanilla asks the mod for on every play, with the per sound
+	 * scale resolved from SoundRegistry.
+	 */
+	@Benchmark
+	public float volumeNormalization(final Volume state) {
+		final int idx = state.next++ & (TABLE_SIZE - 1);
+		return SoundManager.getNormalizedVolume(state.sounds[idx], state.entries[idx], SoundCategory.BLOCKS);
+	}
+
+	/*
+	 * The cull/block check made for every sound vanilla plays.
+	 */
+	@Benchmark
+	public boolean cullAndBlock(final CullBlock state) {
+		final int call = state.next++;
+		return SoundBlockHandler.shouldPlay(state.sounds[call & (TABLE_SIZE - 1)], call / PLAYS_PER_TICK);
+	}
+}
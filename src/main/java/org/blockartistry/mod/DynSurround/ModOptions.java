@@ -52,8 +52,9 @@ public final class ModOptions {
 	public static final String CATEGORY_LOGGING_CONTROL = "logging";
 	public static final String CONFIG_ENABLE_DEBUG_LOGGING = "Enable Debug Logging";
 	public static final String CONFIG_ENABLE_ONLINE_VERSION_CHECK = "Enable Online Version Check";
+	public static final String CONFIG_SOUND_METRICS_INTERVAL = "Sound Metrics Interval";
 	private static final List<String> loggingSort = Arrays.asList(CONFIG_ENABLE_ONLINE_VERSION_CHECK,
-			CONFIG_ENABLE_DEBUG_LOGGING);
+			CONFIG_ENABLE_DEBUG_LOGGING, CONFIG_SOUND_METRICS_INTERVAL);
 
 	@Parameter(category = CATEGORY_LOGGING_CONTROL, property = CONFIG_ENABLE_DEBUG_LOGGING, defaultValue = "false")
 	@Comment("Enables/disables debug logging of the mod")
@@ -63,6 +64,10 @@ public final class ModOptions {
 	@Comment("Enables/disables online version checking")
 	@RestartRequired
 	public static boolean enableVersionChecking = true;
+	@Parameter(category = CATEGORY_LOGGING_CONTROL, property = CONFIG_SOUND_METRICS_INTERVAL, defaultValue = "0")
+	@MinMaxInt(min = 0, max = 3600)
+	@Comment("Seconds between sound metric rows written to logs/dsurround-sound.csv (0 to disable)")
+	public static int soundMetricsInterval = 0;
 
     @Parameter(category = "compat", property = "Use reflection to retrieve lotr mod biomes", defaultValue = "false")
     @Comment("Some lotr versions don't have the LOTRDimension class, this option uses reflection on the LOTRBiome class instead")
@@ -138,8 +143,9 @@ public final class ModOptions {
 	public static final String CONFIG_MIN_RAIN_STRENGTH = "Default Minimum Rain Strength";
 	public static final String CONFIG_MAX_RAIN_STRENGTH = "Default Maximum Rain Strength";
 	public static final String CONFIG_FX_RANGE = "Special Effect Range";
+	public static final String CONFIG_PARTICLE_POOLING = "Particle Pooling";
 	private static final List<String> generalSort = ImmutableList.<String>builder()
-			.add(CONFIG_FX_RANGE, CONFIG_MIN_RAIN_STRENGTH, CONFIG_MAX_RAIN_STRENGTH).build();
+			.add(CONFIG_FX_RANGE, CONFIG_MIN_RAIN_STRENGTH, CONFIG_MAX_RAIN_STRENGTH, CONFIG_PARTICLE_POOLING).build();
 
 	@Parameter(category = CATEGORY_GENERAL, property = CONFIG_MIN_RAIN_STRENGTH, defaultValue = "0.0")
 	@MinMaxFloat(min = 0.0F, max = 1.0F)
@@ -153,6 +159,10 @@ public final class ModOptions {
 	@MinMaxInt(min = 16, max = 32)
 	@Comment("Block radius/range around player for special effect application")
 	public static int specialEffectRange = 16;
+	@Parameter(category = CATEGORY_GENERAL, property = CONFIG_PARTICLE_POOLING, defaultValue = "true")
+	@Comment("Reuse jet and weather splash particles instead of creating new ones")
+	@RestartRequired
+	public static boolean enableParticlePooling = true;
 
 	public static final String CATEGORY_AURORA = "aurora";
 	public static final String CONFIG_AURORA_ENABLED = "Enabled";
@@ -189,7 +199,9 @@ public final class ModOptions {
 	public static final String CATEGORY_BIOMES = "biomes";
 	public static final String CONFIG_BIOME_CONFIG_FILES = "Config Files";
 	public static final String CONFIG_BIOME_ALIASES = "Biome Alias";
-	private static final List<String> biomesSort = Arrays.asList(CONFIG_BIOME_CONFIG_FILES, CONFIG_BIOME_ALIASES);
+	public static final String CONFIG_BIOME_SURVEY_RANGE = "Survey Range";
+	private static final List<String> biomesSort = Arrays.asList(CONFIG_BIOME_CONFIG_FILES, CONFIG_BIOME_ALIASES,
+			CONFIG_BIOME_SURVEY_RANGE);
 
 	@Parameter(category = CATEGORY_BIOMES, property = CONFIG_BIOME_CONFIG_FILES, defaultValue = "")
 	@Comment("Configuration files for configuring Biome Registry")
@@ -199,6 +211,10 @@ public final class ModOptions {
 	@Comment("Biome alias list")
 	@RestartRequired
 	public static String[] biomeAliases = {};
+	@Parameter(category = CATEGORY_BIOMES, property = CONFIG_BIOME_SURVEY_RANGE, defaultValue = "6")
+	@MinMaxInt(min = 1, max = 64)
+	@Comment("Block radius around the player that is surveyed when blending biome sounds")
+	public static int biomeSurveyRange = 6;
 
 	public static final String CATEGORY_DIMENSIONS = "dimensions";
 	public static final String CONFIG_DIMENSION_CONFIG_FILES = "Config Files";
@@ -222,6 +238,11 @@ public final class ModOptions {
 	public static final String CONFIG_AUTO_CONFIG_CHANNELS = "Autoconfigure Channels";
 	public static final String CONFIG_NORMAL_CHANNEL_COUNT = "Number Normal Channels";
 	public static final String CONFIG_STREAMING_CHANNEL_COUNT = "Number Streaming Channels";
+	public static final String CONFIG_SOUND_CACHE_SIZE = "Sound Cache Size";
+	public static final String CONFIG_SOUND_CACHE_THRESHOLD = "Sound Cache Threshold";
+	public static final String CONFIG_SOUND_DISK_CACHE = "Sound Disk Cache";
+	public static final String CONFIG_SOUND_COMMAND_QUEUE = "Sound Command Queue";
+	public static final String CONFIG_BATCH_SOUND_FLUSH = "Batch Sound Flush";
 	public static final String CONFIG_ENABLE_JUMP_SOUND = "Jump Sound";
 	public static final String CONFIG_ENABLE_SWING_SOUND = "Swing Sound";
 	public static final String CONFIG_ENABLE_CRAFTING_SOUND = "Crafting Sound";
@@ -236,7 +257,9 @@ public final class ModOptions {
 			CONFIG_ENABLE_FOOTSTEPS_SOUND, CONFIG_FOOTSTEPS_SOUND_FACTOR, CONFIG_ENABLE_JUMP_SOUND,
 			CONFIG_ENABLE_SWING_SOUND, CONFIG_ENABLE_CRAFTING_SOUND, CONFIG_ENABLE_BOW_PULL_SOUND,
 			CONFIG_AUTO_CONFIG_CHANNELS, CONFIG_NORMAL_CHANNEL_COUNT, CONFIG_STREAMING_CHANNEL_COUNT,
-			CONFIG_BLOCKED_SOUNDS, CONFIG_SOUND_CULL_THRESHOLD, CONFIG_CULLED_SOUNDS, CONFIG_SOUND_VOLUMES);
+			CONFIG_SOUND_CACHE_SIZE, CONFIG_SOUND_CACHE_THRESHOLD,
+			CONFIG_SOUND_DISK_CACHE, CONFIG_SOUND_COMMAND_QUEUE, CONFIG_BATCH_SOUND_FLUSH, CONFIG_BLOCKED_SOUNDS,
+			CONFIG_SOUND_CULL_THRESHOLD, CONFIG_CULLED_SOUNDS, CONFIG_SOUND_VOLUMES);
 
 	@Parameter(category = CATEGORY_SOUND, property = CONFIG_ENABLE_BIOME_SOUNDS, defaultValue = "true")
 	@Comment("Enable biome background and spot sounds")
@@ -260,6 +283,25 @@ public final class ModOptions {
 	@Comment("Number of streaming sound channels to configure in the sound system (manual)")
 	@RestartRequired
 	public static int streamingSoundChannelCount = 4;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_SOUND_CACHE_SIZE, defaultValue = "16384")
+	@MinMaxInt(min = 0, max = 1048576)
+	@Comment("Size in KB of the in-memory sound cache; least recently used sounds are evicted (0 to disable)")
+	public static int soundCacheSize = 16384;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_SOUND_CACHE_THRESHOLD, defaultValue = "64")
+	@MinMaxInt(min = 1, max = 4096)
+	@Comment("Sounds smaller than this size in KB are held in memory; larger sounds are streamed")
+	@RestartRequired
+	public static int soundCacheThreshold = 64;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_SOUND_DISK_CACHE, defaultValue = "true")
+	@Comment("Extract large sounds to a cache folder and stream them from memory mapped files")
+	public static boolean enableSoundDiskCache = true;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_SOUND_COMMAND_QUEUE, defaultValue = "true")
+	@Comment("Queue sound calls made off the client thread and replay them on the client thread")
+	@RestartRequired
+	public static boolean enableSoundCommandQueue = true;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_BATCH_SOUND_FLUSH, defaultValue = "true")
+	@Comment("Flush the sound command queue once per tick rather than after every sound played")
+	public static boolean batchSoundFlush = true;
 	@Parameter(category = CATEGORY_SOUND, property = CONFIG_ENABLE_JUMP_SOUND, defaultValue = "true")
 	@Comment("Enable sound effect when jumping")
 	@RestartRequired
@@ -38,6 +38,12 @@ public class PatchSoundManagerSync extends Transmorgrifier {
 		return "SoundManager synchronization";
 	}
 
+	/*
+	 * Applied whether or not the sound command queue is on. The queue moves
+	 * the calls that change the sound system onto the client thread, but
+	 * isSoundPlaying() returns a value and cannot be queued, so the maps it
+	 * reads still need the lock. On the client thread it is uncontended.
+	 */
 	@Override
 	public boolean transmorgrify(final ClassNode cn) {
 		// Loop through the method nodes setting the synchronized bit
@@ -0,0 +1,372 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client;
+
+import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
+import org.blockartistry.mod.DynSurround.event.RegistryReloadEvent;
+import org.blockartistry.mod.DynSurround.util.Color;
+
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import gnu.trove.set.hash.TLongHashSet;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraftforge.common.ForgeModContainer;
+import net.minecraftforge.event.world.ChunkEvent;
+
+/*
+ * Client side cache of the biome columns around the player. Biome IDs are
+ * kept in a ring buffer centered on the player that is refilled at its
+ * edges as the player moves, and the BiomeRegistry attributes are resolved
+ * once per biome ID. Fog, weather and survey code should query this rather
+ * than the world. Lookups outside of the window fall through to the world.
+ */
+@SideOnly(Side.CLIENT)
+public final class BiomeCache implements IClientEffectHandler {
+
+	// Largest fixed scan radius of the consumers (biome fog range)
+	private static final int MIN_RADIUS = 20;
+	// Slack so render frames that see the player a block off of the
+	// tick position still land in the window
+	private static final int MARGIN = 2;
+	private static final int BIOME_IDS = 256;
+
+	private static int radius;
+	private static int size;
+	private static byte[] grid;
+	private static boolean valid;
+	private static int centerX;
+	private static int centerZ;
+	private static World world;
+	private static int version;
+
+	private static final TLongHashSet dirtyChunks = new TLongHashSet();
+
+	// Attributes derived from the BiomeRegistry, indexed by biome ID
+	private static final BiomeGenBase[] biomes = new BiomeGenBase[BIOME_IDS];
+	private static final boolean[] resolved = new boolean[BIOME_IDS];
+	private static final boolean[] dust = new boolean[BIOME_IDS];
+	private static final boolean[] fog = new boolean[BIOME_IDS];
+	private static final boolean[] precipitation = new boolean[BIOME_IDS];
+	private static final float[] fogDensity = new float[BIOME_IDS];
+	private static final Color[] fogColor = new Color[BIOME_IDS];
+	private static final Color[] dustColor = new Color[BIOME_IDS];
+
+	// Channels of the summed-area table maintained over the window
+	public static final int SUM_AREA = 0;
+	// Number of columns with dust
+	public static final int SUM_DUST = 1;
+	// Fog density (1 if no fog) of columns without dust
+	public static final int SUM_FOG = 2;
+	// Fog density (1 if no fog) of columns with dust
+	public static final int SUM_DUST_FOG = 3;
+	// Dust/fog color of the columns that have one, and their count
+	public static final int SUM_RED = 4;
+	public static final int SUM_GREEN = 5;
+	public static final int SUM_BLUE = 6;
+	public static final int SUM_COLOR = 7;
+	public static final int SUM_CHANNELS = 8;
+
+	private static final double[][] channelValues = new double[BIOME_IDS][SUM_CHANNELS];
+	private static double[] table;
+	private static int tableVersion = -1;
+
+	private static int neededRadius() {
+		int r = Math.max(MIN_RADIUS, ModOptions.biomeSurveyRange);
+		for (final int blend : ForgeModContainer.blendRanges)
+			r = Math.max(r, blend);
+		return r + MARGIN;
+	}
+
+	private static void resolve(final int id, final BiomeGenBase biome) {
+		biomes[id] = biome;
+		dust[id] = BiomeRegistry.hasDust(biome);
+		fog[id] = BiomeRegistry.hasFog(biome);
+		precipitation[id] = BiomeRegistry.hasPrecipitation(biome);
+		fogDensity[id] = BiomeRegistry.getFogDensity(biome);
+		fogColor[id] = BiomeRegistry.getFogColor(biome);
+		dustColor[id] = BiomeRegistry.getDustColor(biome);
+		resolved[id] = true;
+
+		final double[] values = channelValues[id];
+		final double density = fog[id] ? fogDensity[id] : 1.0D;
+		values[SUM_AREA] = 1;
+		values[SUM_DUST] = dust[id] ? 1 : 0;
+		values[SUM_FOG] = dust[id] ? 0 : density;
+		values[SUM_DUST_FOG] = dust[id] ? density : 0;
+		final Color color = dust[id] ? dustColor[id] : fog[id] ? fogColor[id] : null;
+		values[SUM_RED] = color != null ? color.red : 0;
+		values[SUM_GREEN] = color != null ? color.green : 0;
+		values[SUM_BLUE] = color != null ? color.blue : 0;
+		values[SUM_COLOR] = color != null ? 1 : 0;
+	}
+
+	private static int lookup(final World world, final int x, final int z) {
+		BiomeGenBase biome = world.getBiomeGenForCoords(x, z);
+		if (biome == null)
+			biome = BiomeGenBase.plains;
+		final int id = biome.biomeID & 0xFF;
+		if (!resolved[id] || biomes[id] != biome)
+			resolve(id, biome);
+		return id;
+	}
+
+	private static int gridIndex(final int x, final int z) {
+		return Math.floorMod(x, size) * size + Math.floorMod(z, size);
+	}
+
+	private static boolean inWindow(final int x, final int z) {
+		return valid && Math.abs(x - centerX) <= radius && Math.abs(z - centerZ) <= radius;
+	}
+
+	private static void fill(final int x, final int z) {
+		grid[gridIndex(x, z)] = (byte) lookup(world, x, z);
+	}
+
+	private static void refill(final int x, final int z) {
+		centerX = x;
+		centerZ = z;
+		for (int dX = -radius; dX <= radius; dX++)
+			for (int dZ = -radius; dZ <= radius; dZ++)
+				fill(x + dX, z + dZ);
+		valid = true;
+		dirtyChunks.clear();
+	}
+
+	private static void slide(final int x, final int z) {
+		// The column/row leaving the window shares its ring buffer
+		// slot with the one that is being exposed.
+		while (centerX != x) {
+			final int step = x > centerX ? 1 : -1;
+			final int newX = centerX + step * (radius + 1);
+			for (int dZ = -radius; dZ <= radius; dZ++)
+				fill(newX, centerZ + dZ);
+			centerX += step;
+		}
+
+		while (centerZ != z) {
+			final int step = z > centerZ ? 1 : -1;
+			final int newZ = centerZ + step * (radius + 1);
+			for (int dX = -radius; dX <= radius; dX++)
+				fill(centerX + dX, newZ);
+			centerZ += step;
+		}
+	}
+
+	private static void refreshChunk(final long key) {
+		final int minX = ((int) (key >> 32)) << 4;
+		final int minZ = ((int) key) << 4;
+		final int startX = Math.max(minX, centerX - radius);
+		final int endX = Math.min(minX + 15, centerX + radius);
+		final int startZ = Math.max(minZ, centerZ - radius);
+		final int endZ = Math.min(minZ + 15, centerZ + radius);
+		for (int x = startX; x <= endX; x++)
+			for (int z = startZ; z <= endZ; z++)
+				fill(x, z);
+	}
+
+	@Override
+	public void process(final World world, final EntityPlayer player) {
+		final int playerX = MathHelper.floor_double(player.posX);
+		final int playerZ = MathHelper.floor_double(player.posZ);
+
+		final int needed = neededRadius();
+		if (needed != radius) {
+			radius = needed;
+			size = radius * 2 + 1;
+			grid = new byte[size * size];
+			valid = false;
+		}
+
+		if (!valid || BiomeCache.world != world || Math.abs(playerX - centerX) > radius
+				|| Math.abs(playerZ - centerZ) > radius) {
+			BiomeCache.world = world;
+			refill(playerX, playerZ);
+			version++;
+			return;
+		}
+
+		boolean changed = false;
+		if (!dirtyChunks.isEmpty()) {
+			for (final long key : dirtyChunks.toArray())
+				refreshChunk(key);
+			dirtyChunks.clear();
+			changed = true;
+		}
+
+		if (playerX != centerX || playerZ != centerZ) {
+			slide(playerX, playerZ);
+			changed = true;
+		}
+
+		if (changed)
+			version++;
+	}
+
+	/*
+	 * Incremented whenever the content of the window changes, either due
+	 * to player movement or a chunk (re)load. Consumers can use it to
+	 * decide if a cached calculation needs to be redone.
+	 */
+	public static int getVersion() {
+		return version;
+	}
+
+	public static int getBiomeId(final int x, final int z) {
+		if (inWindow(x, z))
+			return grid[gridIndex(x, z)] & 0xFF;
+		return lookup(EnvironState.getWorld(), x, z);
+	}
+
+	public static BiomeGenBase getBiome(final int x, final int z) {
+		return biomes[getBiomeId(x, z)];
+	}
+
+	public static BiomeGenBase getBiomeForId(final int id) {
+		return biomes[id];
+	}
+
+	public static boolean hasDust(final int x, final int z) {
+		return dust[getBiomeId(x, z)];
+	}
+
+	public static boolean hasFog(final int x, final int z) {
+		return fog[getBiomeId(x, z)];
+	}
+
+	public static boolean hasPrecipitation(final int x, final int z) {
+		return precipitation[getBiomeId(x, z)];
+	}
+
+	public static float getFogDensity(final int x, final int z) {
+		return fogDensity[getBiomeId(x, z)];
+	}
+
+	public static Color getFogColor(final int x, final int z) {
+		return fogColor[getBiomeId(x, z)];
+	}
+
+	public static Color getDustColor(final int x, final int z) {
+		return dustColor[getBiomeId(x, z)];
+	}
+
+	/*
+	 * Rebuilds the summed-area table of the window. Entry (i, j) holds the
+	 * channel totals of the columns in grid rows [0, i) and columns [0, j)
+	 * so any rectangle sum is four reads.
+	 */
+	private static void buildTable() {
+		final int n = size + 1;
+		if (table == null || table.length != n * n * SUM_CHANNELS)
+			table = new double[n * n * SUM_CHANNELS];
+
+		final int originX = centerX - radius;
+		final int originZ = centerZ - radius;
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				final double[] values = channelValues[grid[gridIndex(originX + i, originZ + j)] & 0xFF];
+				final int cell = ((i + 1) * n + j + 1) * SUM_CHANNELS;
+				final int up = (i * n + j + 1) * SUM_CHANNELS;
+				final int left = ((i + 1) * n + j) * SUM_CHANNELS;
+				final int diag = (i * n + j) * SUM_CHANNELS;
+				for (int c = 0; c < SUM_CHANNELS; c++)
+					table[cell + c] = values[c] + table[up + c] + table[left + c] - table[diag + c];
+			}
+		}
+		tableVersion = version;
+	}
+
+	/*
+	 * Totals each channel over the square of the given range centered on
+	 * x/z. The square is clipped to the cached window; SUM_AREA reports how
+	 * many columns were actually covered.
+	 */
+	public static void sum(final int x, final int z, final int range, final double[] out) {
+		for (int c = 0; c < SUM_CHANNELS; c++)
+			out[c] = 0;
+		if (!valid)
+			return;
+		if (tableVersion != version)
+			buildTable();
+
+		final int originX = centerX - radius;
+		final int originZ = centerZ - radius;
+		final int i0 = Math.max(x - range - originX, 0);
+		final int i1 = Math.min(x + range - originX + 1, size);
+		final int j0 = Math.max(z - range - originZ, 0);
+		final int j1 = Math.min(z + range - originZ + 1, size);
+		if (i1 <= i0 || j1 <= j0)
+			return;
+
+		final int n = size + 1;
+		final int a = (i1 * n + j1) * SUM_CHANNELS;
+		final int b = (i0 * n + j1) * SUM_CHANNELS;
+		final int c = (i1 * n + j0) * SUM_CHANNELS;
+		final int d = (i0 * n + j0) * SUM_CHANNELS;
+		for (int k = 0; k < SUM_CHANNELS; k++)
+			out[k] = table[a + k] - table[b + k] - table[c + k] + table[d + k];
+	}
+
+	private static void markDirty(final World w, final int chunkX, final int chunkZ) {
+		if (!valid || w != world)
+			return;
+		final int minX = chunkX << 4;
+		final int minZ = chunkZ << 4;
+		if (minX + 15 >= centerX - radius && minX <= centerX + radius && minZ + 15 >= centerZ - radius
+				&& minZ <= centerZ + radius)
+			dirtyChunks.add(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL));
+	}
+
+	@SubscribeEvent
+	public void chunkLoad(final ChunkEvent.Load event) {
+		markDirty(event.world, event.getChunk().xPosition, event.getChunk().zPosition);
+	}
+
+	@SubscribeEvent
+	public void chunkUnload(final ChunkEvent.Unload event) {
+		markDirty(event.world, event.getChunk().xPosition, event.getChunk().zPosition);
+	}
+
+	/*
+	 * Biome attributes may have changed so they need to be resolved again.
+	 */
+	@SubscribeEvent
+	public void registryReloadEvent(final RegistryReloadEvent.Biome event) {
+		for (int i = 0; i < BIOME_IDS; i++)
+			if (resolved[i])
+				resolve(i, biomes[i]);
+		version++;
+	}
+
+	@Override
+	public boolean hasEvents() {
+		return true;
+	}
+
+}
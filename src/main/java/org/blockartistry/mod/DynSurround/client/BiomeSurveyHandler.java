@@ -24,79 +24,196 @@
 
 package org.blockartistry.mod.DynSurround.client;
 
+import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
 import org.blockartistry.mod.DynSurround.data.FakeBiome;
 
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
-import gnu.trove.map.hash.TObjectIntHashMap;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraftforge.event.world.ChunkEvent;
 
+/*
+ * Maintains biome weights for a square window around the player. The
+ * window slides as the player moves across block boundaries in X/Z so
+ * only the newly exposed row/column is sampled; the biome IDs of the
+ * window are kept in a ring buffer so the row/column leaving the window
+ * can be subtracted without requerying the BiomeCache.
+ */
 @SideOnly(Side.CLIENT)
 public final class BiomeSurveyHandler implements IClientEffectHandler {
 
-	private static final int BIOME_SURVEY_RANGE = 6;
+	// Slot 256 holds whatever FakeBiome the player is currently in
+	private static final int FAKE_BIOME_SLOT = 256;
+	private static final int SLOTS = FAKE_BIOME_SLOT + 1;
 
 	private static int area;
-	private static final TObjectIntHashMap<BiomeGenBase> weights = new TObjectIntHashMap<>();
+	private static final int[] weights = new int[SLOTS];
+	private static final BiomeGenBase[] biomes = new BiomeGenBase[SLOTS];
+
+	// Compact list of the slots that have a non-zero weight
+	private static final int[] active = new int[SLOTS];
+	private static final int[] activeIndex = new int[SLOTS];
+	private static int activeCount;
+
+	private static int range;
+	private static int size;
+	private static byte[] grid;
+	private static boolean gridValid;
+	private static int centerX;
+	private static int centerZ;
 
-	private static BiomeGenBase lastPlayerBiome = null;
-	private static int lastDimension = 0;
-	private static int lastPlayerX = 0;
-	private static int lastPlayerY = 0;
-	private static int lastPlayerZ = 0;
+	private static World lastWorld = null;
 
 	public static int getArea() {
 		return area;
 	}
 
-	public static TObjectIntHashMap<BiomeGenBase> getBiomes() {
-		return weights;
+	public static int getBiomeCount() {
+		return activeCount;
+	}
+
+	public static BiomeGenBase getBiome(final int index) {
+		return biomes[active[index]];
+	}
+
+	public static int getWeight(final int index) {
+		return weights[active[index]];
 	}
 
-	private static void doSurvey(final EntityPlayer player, final int range) {
+	private static void adjust(final int slot, final int delta) {
+		final int old = weights[slot];
+		final int weight = old + delta;
+		weights[slot] = weight;
+		if (old == 0 && weight != 0) {
+			activeIndex[slot] = activeCount;
+			active[activeCount++] = slot;
+		} else if (old != 0 && weight == 0) {
+			final int idx = activeIndex[slot];
+			final int last = active[--activeCount];
+			active[idx] = last;
+			activeIndex[last] = idx;
+		}
+	}
+
+	private static void reset() {
+		for (int i = 0; i < activeCount; i++)
+			weights[active[i]] = 0;
+		activeCount = 0;
 		area = 0;
-		weights.clear();
-
-		if (EnvironState.getPlayerBiome() instanceof FakeBiome) {
-			area = 1;
-			weights.put(EnvironState.getPlayerBiome(), 1);
-		} else {
-			final int x = MathHelper.floor_double(player.posX);
-			final int z = MathHelper.floor_double(player.posZ);
-
-			for (int dX = -range; dX <= range; dX++)
-				for (int dZ = -range; dZ <= range; dZ++) {
-					area++;
-					final BiomeGenBase biome = player.worldObj.getBiomeGenForCoords(x + dX, z + dZ);
-					weights.adjustOrPutValue(biome, 1, 1);
-				}
+	}
+
+	private static int gridIndex(final int x, final int z) {
+		return Math.floorMod(x, size) * size + Math.floorMod(z, size);
+	}
+
+	private static void sample(final int x, final int z) {
+		final int id = BiomeCache.getBiomeId(x, z);
+		biomes[id] = BiomeCache.getBiomeForId(id);
+		grid[gridIndex(x, z)] = (byte) id;
+		adjust(id, 1);
+	}
+
+	private static void drop(final int x, final int z) {
+		adjust(grid[gridIndex(x, z)] & 0xFF, -1);
+	}
+
+	private static void doSurvey(final int x, final int z) {
+		reset();
+		centerX = x;
+		centerZ = z;
+		for (int dX = -range; dX <= range; dX++)
+			for (int dZ = -range; dZ <= range; dZ++)
+				sample(x + dX, z + dZ);
+		area = size * size;
+		gridValid = true;
+	}
+
+	private static void slide(final int x, final int z) {
+		// Each step retires one edge of the window and samples the
+		// opposite one. They share the same ring buffer column/row.
+		while (centerX != x) {
+			final int step = x > centerX ? 1 : -1;
+			final int oldX = centerX - step * range;
+			final int newX = centerX + step * (range + 1);
+			for (int dZ = -range; dZ <= range; dZ++) {
+				drop(oldX, centerZ + dZ);
+				sample(newX, centerZ + dZ);
+			}
+			centerX += step;
+		}
+
+		while (centerZ != z) {
+			final int step = z > centerZ ? 1 : -1;
+			final int oldZ = centerZ - step * range;
+			final int newZ = centerZ + step * (range + 1);
+			for (int dX = -range; dX <= range; dX++) {
+				drop(centerX + dX, oldZ);
+				sample(centerX + dX, newZ);
+			}
+			centerZ += step;
 		}
 	}
 
+	private static void setFakeBiome(final BiomeGenBase biome) {
+		if (activeCount == 1 && active[0] == FAKE_BIOME_SLOT && biomes[FAKE_BIOME_SLOT] == biome)
+			return;
+		reset();
+		biomes[FAKE_BIOME_SLOT] = biome;
+		adjust(FAKE_BIOME_SLOT, 1);
+		area = 1;
+		gridValid = false;
+	}
+
 	@Override
-	public void process(World world, EntityPlayer player) {
+	public void process(final World world, final EntityPlayer player) {
+		final BiomeGenBase playerBiome = EnvironState.getPlayerBiome();
+		if (playerBiome instanceof FakeBiome) {
+			setFakeBiome(playerBiome);
+			return;
+		}
+
 		final int playerX = MathHelper.floor_double(player.posX);
-		final int playerY = MathHelper.floor_double(player.posY);
 		final int playerZ = MathHelper.floor_double(player.posZ);
 
-		if (lastDimension != EnvironState.getDimensionId() || playerX != lastPlayerX || playerY != lastPlayerY
-				|| playerZ != lastPlayerZ || lastPlayerBiome != EnvironState.getPlayerBiome()) {
-			lastPlayerBiome = EnvironState.getPlayerBiome();
-			lastDimension = EnvironState.getDimensionId();
-			lastPlayerX = playerX;
-			lastPlayerY = playerY;
-			lastPlayerZ = playerZ;
-			doSurvey(player, BIOME_SURVEY_RANGE);
+		if (range != ModOptions.biomeSurveyRange) {
+			range = ModOptions.biomeSurveyRange;
+			size = range * 2 + 1;
+			grid = new byte[size * size];
+			gridValid = false;
 		}
+
+		if (!gridValid || lastWorld != world || Math.abs(playerX - centerX) > range
+				|| Math.abs(playerZ - centerZ) > range) {
+			lastWorld = world;
+			doSurvey(playerX, playerZ);
+		} else if (playerX != centerX || playerZ != centerZ) {
+			slide(playerX, playerZ);
+		}
+	}
+
+	/*
+	 * Biome data for a chunk that arrives after it was surveyed replaces
+	 * whatever the client world guessed, so resurvey if it overlaps.
+	 */
+	@SubscribeEvent
+	public void chunkLoad(final ChunkEvent.Load event) {
+		if (!gridValid || event.world != lastWorld)
+			return;
+		final int minX = event.getChunk().xPosition << 4;
+		final int minZ = event.getChunk().zPosition << 4;
+		if (minX + 15 >= centerX - range && minX <= centerX + range && minZ + 15 >= centerZ - range
+				&& minZ <= centerZ + range)
+			gridValid = false;
 	}
 
 	@Override
 	public boolean hasEvents() {
-		return false;
+		return true;
 	}
 
 }
@@ -30,6 +30,8 @@ import java.util.List;
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.footsteps.Footsteps;
 import org.blockartistry.mod.DynSurround.client.fx.BlockEffectHandler;
+import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
+import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
 import org.blockartistry.mod.DynSurround.data.DimensionRegistry;
 
 import cpw.mods.fml.client.FMLClientHandler;
@@ -68,6 +70,7 @@ public class ClientEffectHandler {
 		FMLCommonHandler.instance().bus().register(handler);
 
 		register(new EnvironStateHandler());
+		register(new BiomeCache());
 		register(new BiomeSurveyHandler());
 		register(new FogEffectHandler());
 		register(new BlockEffectHandler());
@@ -90,6 +93,11 @@ public class ClientEffectHandler {
 
 	@SubscribeEvent(priority = EventPriority.LOWEST)
 	public void clientTick(final TickEvent.ClientTickEvent event) {
+		if (event.phase == Phase.END) {
+			SoundManager.endTick();
+			return;
+		}
+
 		if (Minecraft.getMinecraft().isGamePaused())
 			return;
 
@@ -98,6 +106,9 @@ public class ClientEffectHandler {
 			return;
 
 		if (event.phase == Phase.START) {
+			// Pick up any biome registry rebuild that finished in the background
+			BiomeRegistry.postPendingReload();
+
 			final EntityPlayer player = FMLClientHandler.instance().getClient().thePlayer;
 			for (final IClientEffectHandler handler : effectHandlers)
 				handler.process(world, player);
@@ -31,10 +31,12 @@ import java.util.UUID;
 import javax.annotation.Nonnull;
 
 import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.client.fx.particle.ParticlePool;
 import org.blockartistry.mod.DynSurround.client.sound.SoundEffect;
 import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
 import org.blockartistry.mod.DynSurround.client.weather.Weather;
 import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
+import org.blockartistry.mod.DynSurround.data.Conditions;
 import org.blockartistry.mod.DynSurround.data.DimensionRegistry;
 import org.blockartistry.mod.DynSurround.event.DiagnosticEvent;
 import org.blockartistry.mod.DynSurround.util.PlayerUtils;
@@ -62,6 +64,7 @@ import net.minecraft.potion.Potion;
 import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.biome.BiomeGenBase.TempCategory;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.living.LivingEvent.LivingJumpEvent;
@@ -111,7 +114,7 @@ public class EnvironStateHandler implements IClientEffectHandler {
 
 		// State that is gathered from the various sources
 		// to avoid requery. Used during the tick.
-		private static String conditions = "";
+		private static Conditions conditions = Conditions.EMPTY;
 		private static String biomeName = "";
 		private static BiomeGenBase playerBiome = null;
 		private static DimensionRegistry dimensionInfo = null;
@@ -127,82 +130,90 @@ public class EnvironStateHandler implements IClientEffectHandler {
 
 		private static int tickCounter;
 
-		private static final String CONDITION_TOKEN_HURT = "hurt";
-		private static final String CONDITION_TOKEN_HUNGRY = "hungry";
-		private static final String CONDITION_TOKEN_BURNING = "burning";
-		private static final String CONDITION_TOKEN_NOAIR = "noair";
-		private static final String CONDITION_TOKEN_FLYING = "flying";
-		private static final String CONDITION_TOKEN_SPRINTING = "sprinting";
-		private static final String CONDITION_TOKEN_INLAVA = "inlava";
-		private static final String CONDITION_TOKEN_INWATER = "inwater";
-		private static final String CONDITION_TOKEN_INVISIBLE = "invisible";
-		private static final String CONDITION_TOKEN_BLIND = "blind";
-		private static final String CONDITION_TOKEN_MINECART = "ridingminecart";
-		private static final String CONDITION_TOKEN_HORSE = "ridinghorse";
-		private static final String CONDITION_TOKEN_BOAT = "ridingboat";
-		private static final String CONDITION_TOKEN_PIG = "ridingpig";
-		private static final String CONDITION_TOKEN_RIDING = "riding";
-		private static final String CONDITION_TOKEN_FREEZING = "freezing";
-		private static final String CONDITION_TOKEN_FOG = "fog";
-		private static final String CONDITION_TOKEN_HUMID = "humid";
-		private static final String CONDITION_TOKEN_DRY = "dry";
-		private static final String CONDITION_TOKEN_INSIDE = "inside";
-		private static final char CONDITION_SEPARATOR = '#';
-
-		private static String getPlayerConditions(final EntityPlayer player) {
-			final StringBuilder builder = new StringBuilder();
+		private static final int CONDITION_HURT = Conditions.intern("hurt");
+		private static final int CONDITION_HUNGRY = Conditions.intern("hungry");
+		private static final int CONDITION_BURNING = Conditions.intern("burning");
+		private static final int CONDITION_NOAIR = Conditions.intern("noair");
+		private static final int CONDITION_FLYING = Conditions.intern("flying");
+		private static final int CONDITION_SPRINTING = Conditions.intern("sprinting");
+		private static final int CONDITION_INLAVA = Conditions.intern("inlava");
+		private static final int CONDITION_INWATER = Conditions.intern("inwater");
+		private static final int CONDITION_INVISIBLE = Conditions.intern("invisible");
+		private static final int CONDITION_BLIND = Conditions.intern("blind");
+		private static final int CONDITION_MINECART = Conditions.intern("ridingminecart");
+		private static final int CONDITION_HORSE = Conditions.intern("ridinghorse");
+		private static final int CONDITION_BOAT = Conditions.intern("ridingboat");
+		private static final int CONDITION_PIG = Conditions.intern("ridingpig");
+		private static final int CONDITION_RIDING = Conditions.intern("riding");
+		private static final int CONDITION_FREEZING = Conditions.intern("freezing");
+		private static final int CONDITION_FOG = Conditions.intern("fog");
+		private static final int CONDITION_HUMID = Conditions.intern("humid");
+		private static final int CONDITION_DRY = Conditions.intern("dry");
+		private static final int CONDITION_INSIDE = Conditions.intern("inside");
+
+		private static final String[] TEMPERATURE_CATEGORIES = new String[TempCategory.values().length];
+
+		static {
+			for (final TempCategory tc : TempCategory.values())
+				TEMPERATURE_CATEGORIES[tc.ordinal()] = "tc" + tc.name().toLowerCase();
+		}
+
+		private static final Conditions.Builder conditionBuilder = new Conditions.Builder();
+
+		private static void getPlayerConditions(final EntityPlayer player, final Conditions.Builder builder) {
 			if (isPlayerHurt())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_HURT);
+				builder.add(CONDITION_HURT);
 			if (isPlayerHungry())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_HUNGRY);
+				builder.add(CONDITION_HUNGRY);
 			if (isPlayerBurning())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_BURNING);
+				builder.add(CONDITION_BURNING);
 			if (isPlayerSuffocating())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_NOAIR);
+				builder.add(CONDITION_NOAIR);
 			if (isPlayerFlying())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_FLYING);
+				builder.add(CONDITION_FLYING);
 			if (isPlayerSprinting())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_SPRINTING);
+				builder.add(CONDITION_SPRINTING);
 			if (isPlayerInLava())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_INLAVA);
+				builder.add(CONDITION_INLAVA);
 			if (isPlayerInvisible())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_INVISIBLE);
+				builder.add(CONDITION_INVISIBLE);
 			if (isPlayerBlind())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_BLIND);
+				builder.add(CONDITION_BLIND);
 			if (isPlayerInWater())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_INWATER);
+				builder.add(CONDITION_INWATER);
 			if (isFreezing())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_FREEZING);
+				builder.add(CONDITION_FREEZING);
 			if (isFoggy())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_FOG);
+				builder.add(CONDITION_FOG);
 			if (isHumid())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_HUMID);
+				builder.add(CONDITION_HUMID);
 			if (isDry())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_DRY);
+				builder.add(CONDITION_DRY);
 			if (isPlayerInside())
-				builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_INSIDE);
+				builder.add(CONDITION_INSIDE);
 			if (isPlayerRiding()) {
-				builder.append(CONDITION_SEPARATOR);
 				if (player.ridingEntity instanceof EntityMinecart)
-					builder.append(CONDITION_TOKEN_MINECART);
+					builder.add(CONDITION_MINECART);
 				else if (player.ridingEntity instanceof EntityHorse)
-					builder.append(CONDITION_TOKEN_HORSE);
+					builder.add(CONDITION_HORSE);
 				else if (player.ridingEntity instanceof EntityBoat)
-					builder.append(CONDITION_TOKEN_BOAT);
+					builder.add(CONDITION_BOAT);
 				else if (player.ridingEntity instanceof EntityPig)
-					builder.append(CONDITION_TOKEN_PIG);
+					builder.add(CONDITION_PIG);
 				else
-					builder.append(CONDITION_TOKEN_RIDING);
+					builder.add(CONDITION_RIDING);
 			}
-			builder.append(CONDITION_SEPARATOR).append(temperatureCategory);
-			builder.append(CONDITION_SEPARATOR);
-
-			return builder.toString();
+			if (!temperatureCategory.isEmpty())
+				builder.add(temperatureCategory);
+			builder.endGroup();
 		}
 
 		private static void tick(final World world, final EntityPlayer player) {
 			EnvironState.player = player;
-			EnvironState.conditions = DimensionRegistry.getConditions(world) + getPlayerConditions(player);
+			conditionBuilder.begin();
+			DimensionRegistry.getConditions(world, conditionBuilder);
+			getPlayerConditions(player, conditionBuilder);
+			EnvironState.conditions = conditionBuilder.build();
 			EnvironState.playerBiome = PlayerUtils.getPlayerBiome(player, false);
 			EnvironState.biomeName = BiomeRegistry.resolveName(EnvironState.playerBiome);
 			EnvironState.dimensionInfo = DimensionRegistry.getData(player.worldObj);
@@ -215,7 +226,7 @@ public class EnvironStateHandler implements IClientEffectHandler {
 			final int posZ = MathHelper.floor_double(player.posZ);
 			final BiomeGenBase trueBiome = PlayerUtils.getPlayerBiome(player, true);
 			EnvironState.freezing = trueBiome.getFloatTemperature(posX, posY, posZ) < 0.15F;
-			EnvironState.temperatureCategory = "tc" + trueBiome.getTempCategory().name().toLowerCase();
+			EnvironState.temperatureCategory = TEMPERATURE_CATEGORIES[trueBiome.getTempCategory().ordinal()];
 			EnvironState.humid = trueBiome.isHighHumidity();
 			EnvironState.dry = trueBiome.getFloatRainfall() == 0;
 
@@ -223,7 +234,7 @@ public class EnvironStateHandler implements IClientEffectHandler {
 				EnvironState.tickCounter++;
 		}
 
-		public static String getConditions() {
+		public static Conditions getConditions() {
 			return conditions;
 		}
 
@@ -462,6 +473,7 @@ public class EnvironStateHandler implements IClientEffectHandler {
 		event.output.add(Weather.diagnostic());
 		event.output.add("Biome: " + EnvironState.getBiomeName());
 		event.output.add("Conditions: " + EnvironState.getConditions());
+		event.output.add(ParticlePool.getStatistics());
 	}
 
 }
@@ -25,22 +25,26 @@
 package org.blockartistry.mod.DynSurround.client;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+import org.blockartistry.mod.DynSurround.client.sound.SoundCommandQueue;
 import org.blockartistry.mod.DynSurround.client.sound.SoundEffect;
 import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
+import org.blockartistry.mod.DynSurround.client.sound.SoundMetrics;
+import org.blockartistry.mod.DynSurround.client.sound.VoiceAllocator;
+import org.blockartistry.mod.DynSurround.client.sound.cache.SoundCache;
 import org.blockartistry.mod.DynSurround.client.weather.Weather;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
 import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
+import org.blockartistry.mod.DynSurround.data.Conditions;
 import org.blockartistry.mod.DynSurround.event.DiagnosticEvent;
 import org.blockartistry.mod.DynSurround.event.RegistryReloadEvent;
 
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
-import gnu.trove.map.hash.TObjectIntHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.PositionedSoundRecord;
@@ -63,26 +67,53 @@ public class PlayerSoundEffectHandler implements IClientEffectHandler {
 		return EnvironState.isPlayerUnderground() || !EnvironState.isPlayerInside();
 	}
 
-	private static List<SoundEffect> getBiomeSounds(final String conditions) {
+	// Scratch space for collecting biome sounds, indexed by SoundEffect.id.
+	// Reused each tick so gathering the ambient sounds does not allocate.
+	private static int[] soundWeights = new int[32];
+	private static SoundEffect[] soundEffects = new SoundEffect[32];
+	private static int[] touched = new int[32];
+	private static int touchedCount = 0;
+
+	private static void addBiomeSound(final SoundEffect sound, final int weight) {
+		final int id = sound.id;
+		if (id >= soundWeights.length) {
+			final int size = Math.max(id + 1, soundWeights.length * 2);
+			soundWeights = Arrays.copyOf(soundWeights, size);
+			soundEffects = Arrays.copyOf(soundEffects, size);
+			touched = Arrays.copyOf(touched, size);
+		}
+		if (soundEffects[id] == null) {
+			soundEffects[id] = sound;
+			touched[touchedCount++] = id;
+		}
+		soundWeights[id] += weight;
+	}
+
+	private static void queueBiomeSounds(final Conditions conditions) {
 		// Need to collect sounds from all the applicable biomes
 		// along with their weights.
-		final TObjectIntHashMap<SoundEffect> sounds = new TObjectIntHashMap<>();
-		final TObjectIntHashMap<BiomeGenBase> weights = BiomeSurveyHandler.getBiomes();
-		for (final BiomeGenBase biome : weights.keySet()) {
-			final List<SoundEffect> bs = BiomeRegistry.getSounds(biome, conditions);
-			for (final SoundEffect sound : bs)
-				sounds.put(sound, sounds.get(sound) + weights.get(biome));
+		final int count = BiomeSurveyHandler.getBiomeCount();
+		for (int i = 0; i < count; i++) {
+			final int weight = BiomeSurveyHandler.getWeight(i);
+			final List<SoundEffect> bs = BiomeRegistry.getSounds(BiomeSurveyHandler.getBiome(i));
+			for (int j = 0; j < bs.size(); j++) {
+				final SoundEffect sound = bs.get(j);
+				if (sound.matches(conditions))
+					addBiomeSound(sound, weight);
+			}
 		}
 
-		// Scale the volumes in the resulting list based on the weights
-		final List<SoundEffect> result = new ArrayList<>();
-		final int area = BiomeSurveyHandler.getArea();
-		for (final SoundEffect sound : sounds.keySet()) {
-			final float scale = 0.3F + 0.7F * ((float) sounds.get(sound) / (float) area);
-			result.add(SoundEffect.scaleVolume(sound, scale));
+		// Scale the volumes based on the weights
+		final float area = BiomeSurveyHandler.getArea();
+		for (int i = 0; i < touchedCount; i++) {
+			final int id = touched[i];
+			final SoundEffect sound = soundEffects[id];
+			final float scale = 0.3F + 0.7F * ((float) soundWeights[id] / area);
+			SoundManager.queueAmbientSound(sound, sound.getVolume() * scale);
+			soundEffects[id] = null;
+			soundWeights[id] = 0;
 		}
-
-		return result;
+		touchedCount = 0;
 	}
 
 	private static void resetSounds() {
@@ -100,14 +131,18 @@ public class PlayerSoundEffectHandler implements IClientEffectHandler {
 		}
 
 		final BiomeGenBase playerBiome = EnvironState.getPlayerBiome();
-		final String conditions = EnvironState.getConditions();
+		final Conditions conditions = EnvironState.getConditions();
 
-		final List<SoundEffect> sounds = new ArrayList<>();
+		SoundManager.beginAmbientSounds();
 		if (doBiomeSounds())
-			sounds.addAll(getBiomeSounds(conditions));
-		sounds.addAll(BiomeRegistry.getSounds(BiomeRegistry.PLAYER, conditions));
-
-		SoundManager.queueAmbientSounds(sounds);
+			queueBiomeSounds(conditions);
+		final List<SoundEffect> playerSounds = BiomeRegistry.getSounds(BiomeRegistry.PLAYER);
+		for (int i = 0; i < playerSounds.size(); i++) {
+			final SoundEffect sound = playerSounds.get(i);
+			if (sound.matches(conditions))
+				SoundManager.queueAmbientSound(sound, sound.getVolume());
+		}
+		SoundManager.endAmbientSounds();
 
 		if (doBiomeSounds()) {
 			final SoundEffect sound = BiomeRegistry.getSpotSound(playerBiome, conditions, EnvironState.RANDOM);
@@ -151,6 +186,11 @@ public class PlayerSoundEffectHandler implements IClientEffectHandler {
         String builder = "SoundSystem: " + SoundManager.currentSoundCount() + '/' +
             SoundManager.maxSoundCount();
 		event.output.add(builder);
+		event.output.add(VoiceAllocator.getStatistics());
+		event.output.add(SoundCommandQueue.getStatistics());
+		event.output.add(SoundManager.getFlushStatistics());
+		event.output.addAll(SoundMetrics.getStatistics());
+		event.output.add(SoundCache.getStatistics());
         event.output.addAll(SoundManager.getSounds());
 	}
 
@@ -180,8 +220,7 @@ public class PlayerSoundEffectHandler implements IClientEffectHandler {
 						;
 					if (soundY > 0 && block.getMaterial().isSolid()) {
 						final int distance = y - soundY;
-						SoundManager.playSoundAt(new BlockPos(x, soundY + 1, z), BiomeRegistry.WATER_DRIP,
-								40 + distance * 2);
+						SoundManager.playSoundAt(x, soundY + 1, z, BiomeRegistry.WATER_DRIP, 40 + distance * 2);
 					}
 				}
 			}
@@ -24,12 +24,10 @@
 
 package org.blockartistry.mod.DynSurround.client;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import org.blockartistry.mod.DynSurround.ModLog;
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+import org.blockartistry.mod.DynSurround.client.sound.SoundMetrics;
 import org.blockartistry.mod.DynSurround.data.SoundRegistry;
 import org.blockartistry.mod.DynSurround.event.SoundConfigEvent;
 
@@ -37,19 +35,16 @@ import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
-import gnu.trove.map.hash.TObjectIntHashMap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.SoundHandler;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.sound.PlaySoundEvent17;
 
 @SideOnly(Side.CLIENT)
 public class SoundBlockHandler implements IClientEffectHandler {
 
-	private final Set<String> soundsToBlock = new HashSet<>();
-	private final TObjectIntHashMap<String> soundCull = new TObjectIntHashMap<>();
-
 	public SoundBlockHandler() {
 	}
 
@@ -65,45 +60,47 @@ public class SoundBlockHandler implements IClientEffectHandler {
 
 	@SubscribeEvent
 	public void soundConfigReload(final SoundConfigEvent.Reload event) {
-		this.soundsToBlock.clear();
-		this.soundCull.clear();
+		// Resolve the decisions for the known sounds up front
 		final SoundHandler handler = Minecraft.getMinecraft().getSoundHandler();
 		for (final Object resource : handler.sndRegistry.getKeys()) {
-			final String rs = resource.toString();
-			if (SoundRegistry.isSoundBlocked(rs)) {
-				ModLog.debug("Blocking sound '%s'", rs);
-				this.soundsToBlock.add(rs);
-			} else if (SoundRegistry.isSoundCulled(rs)) {
-				ModLog.debug("Culling sound '%s'", rs);
-				this.soundCull.put(rs, -ModOptions.soundCullingThreshold);
+			final SoundRegistry.Decision decision = SoundRegistry.getDecision((ResourceLocation) resource);
+			if (decision.blocked) {
+				ModLog.debug("Blocking sound '%s'", resource);
+			} else if (decision.culled) {
+				ModLog.debug("Culling sound '%s'", resource);
 			}
 		}
 	}
 
-	@SubscribeEvent(priority = EventPriority.HIGHEST)
-	public void soundEvent(final PlaySoundEvent17 event) {
-		if (event.sound == null || event.sound.getPositionedSoundLocation() == null)
-			return;
+	/*
+	 * Whether the sound may be played at the tick. Blocked sounds never
+	 * are; culled sounds at most once per culling window.
+	 */
+	public static boolean shouldPlay(final ResourceLocation resource, final int currentTick) {
+		final SoundRegistry.Decision decision = SoundRegistry.getDecision(resource);
+		if (decision.blocked) {
+			SoundMetrics.blocked();
+			return false;
+		}
 
-		final String resource = event.sound.getPositionedSoundLocation().toString();
-		if (this.soundsToBlock.contains(resource)) {
-			event.result = null;
-			return;
+		if (!decision.culled || ModOptions.soundCullingThreshold <= 0)
+			return true;
+
+		if ((currentTick - decision.lastPlayed) < ModOptions.soundCullingThreshold) {
+			SoundMetrics.culled();
+			return false;
 		}
 
-		if (ModOptions.soundCullingThreshold <= 0)
-			return;
+		decision.lastPlayed = currentTick;
+		return true;
+	}
 
-		// Get the last time the sound was seen
-		final int lastOccurance = this.soundCull.get(resource);
-		if (lastOccurance == 0)
+	@SubscribeEvent(priority = EventPriority.HIGHEST)
+	public void soundEvent(final PlaySoundEvent17 event) {
+		if (event.sound == null || event.sound.getPositionedSoundLocation() == null)
 			return;
 
-		final int currentTick = EnvironState.getTickCounter();
-		if ((currentTick - lastOccurance) < ModOptions.soundCullingThreshold) {
+		if (!shouldPlay(event.sound.getPositionedSoundLocation(), EnvironState.getTickCounter()))
 			event.result = null;
-		} else {
-			this.soundCull.put(resource, currentTick);
-		}
 	}
 }
@@ -35,4 +35,8 @@ public class WeatherUtils {
 	public static boolean biomeHasDust(final BiomeGenBase biome) {
 		return ModOptions.allowDesertFog && BiomeRegistry.hasDust(biome) && !Weather.doVanilla();
 	}
+
+	public static boolean biomeHasDust(final int x, final int z) {
+		return ModOptions.allowDesertFog && BiomeCache.hasDust(x, z) && !Weather.doVanilla();
+	}
 }
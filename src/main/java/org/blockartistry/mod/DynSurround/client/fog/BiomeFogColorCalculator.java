@@ -26,9 +26,8 @@ package org.blockartistry.mod.DynSurround.client.fog;
 import javax.annotation.Nonnull;
 
 import org.blockartistry.mod.DynSurround.client.weather.Weather;
+import org.blockartistry.mod.DynSurround.client.BiomeCache;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
-import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
 import org.blockartistry.mod.DynSurround.util.Color;
 import org.blockartistry.mod.DynSurround.util.MathStuff;
 
@@ -39,7 +38,6 @@ import net.minecraft.client.settings.GameSettings;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.potion.Potion;
 import net.minecraft.world.World;
-import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraftforge.client.event.EntityViewRenderEvent;
 import net.minecraftforge.common.ForgeModContainer;
 
@@ -48,12 +46,15 @@ public class BiomeFogColorCalculator extends VanillaFogColorCalculator {
 
 	protected int posX;
 	protected int posZ;
+	protected int distance;
+	protected int version = -1;
 
-	// Last pass calculations. We can reuse if possible to avoid scanning
+	// Last pass calculations. We can reuse if possible to avoid summing
 	// the area, again.
 	protected double weightBiomeFog;
-	protected Color biomeFogColor;
-	protected boolean doScan = true;
+	protected double weightMixed;
+	protected Color biomeFogColor = new Color(0, 0, 0);
+	protected final double[] sums = new double[BiomeCache.SUM_CHANNELS];
 
 	@Override
 	@Nonnull
@@ -72,39 +73,19 @@ public class BiomeFogColorCalculator extends VanillaFogColorCalculator {
 			distance = ranges[MathStuff.clamp(settings.renderDistanceChunks, 0, ranges.length - 1)];
 		}
 
-		final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(0, 0, 0);
-		this.doScan |= this.posX != playerX || this.posZ != playerZ;
-
-		if (this.doScan) {
-			this.doScan = false;
+		if (this.version != BiomeCache.getVersion() || this.posX != playerX || this.posZ != playerZ
+				|| this.distance != distance) {
+			this.version = BiomeCache.getVersion();
 			this.posX = playerX;
 			this.posZ = playerZ;
-			this.biomeFogColor = new Color(0, 0, 0);
-			this.weightBiomeFog = 0;
-
-			for (int x = -distance; x <= distance; ++x) {
-				for (int z = -distance; z <= distance; ++z) {
-					pos.setPos(playerX + x, 0, playerZ + z);
-
-					this.doScan = this.doScan | world.blockExists(pos.getX(), pos.getY(), pos.getZ());
-					final BiomeGenBase biome = world.getBiomeGenForCoords(pos.getX(), pos.getZ());
-					final Color color;
-					
-					// Fetch the color we are dealing with.
-					if (BiomeRegistry.hasDust(biome)) {
-						color = BiomeRegistry.getDustColor(biome);
-					} else if (BiomeRegistry.hasFog(biome)) {
-						color = BiomeRegistry.getFogColor(biome);
-					} else {
-						color = null;
-					}
-
-					if (color != null) {
-						this.biomeFogColor.add(color);
-						this.weightBiomeFog += 1F;
-					}
-				}
-			}
+			this.distance = distance;
+
+			BiomeCache.sum(playerX, playerZ, distance, this.sums);
+			this.biomeFogColor.red = (float) this.sums[BiomeCache.SUM_RED];
+			this.biomeFogColor.green = (float) this.sums[BiomeCache.SUM_GREEN];
+			this.biomeFogColor.blue = (float) this.sums[BiomeCache.SUM_BLUE];
+			this.weightBiomeFog = this.sums[BiomeCache.SUM_COLOR];
+			this.weightMixed = this.sums[BiomeCache.SUM_AREA];
 		}
 
 		// If we have nothing then just return whatever Vanilla wanted
@@ -152,7 +133,7 @@ public class BiomeFogColorCalculator extends VanillaFogColorCalculator {
 
 		final Color processedColor = applyPlayerEffects(world, player, fogColor, partialTicks);
 
-		final double weightMixed = (distance * 2 + 1) * (distance * 2 + 1);
+		final double weightMixed = this.weightMixed;
 		final double weightDefault = weightMixed - this.weightBiomeFog;
 		final Color vanillaColor = super.calculate(event);
 
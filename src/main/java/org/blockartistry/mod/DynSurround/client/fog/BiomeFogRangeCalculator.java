@@ -25,20 +25,19 @@ package org.blockartistry.mod.DynSurround.client.fog;
 
 import javax.annotation.Nonnull;
 
+import org.blockartistry.mod.DynSurround.client.BiomeCache;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
 import org.blockartistry.mod.DynSurround.client.weather.Weather;
-import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
 import org.blockartistry.mod.DynSurround.util.MathStuff;
 
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.world.World;
-import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraftforge.client.event.EntityViewRenderEvent;
 
 /**
  * Scans the biome area around the player to determine the fog parameters.
+ * The area totals come from the summed-area table of the BiomeCache.
  */
 @SideOnly(Side.CLIENT)
 public class BiomeFogRangeCalculator extends VanillaFogRangeCalculator {
@@ -51,17 +50,18 @@ public class BiomeFogRangeCalculator extends VanillaFogRangeCalculator {
 		public int posZ;
 		public float rain;
 		public float lastFarPlane;
-		public boolean doScan = true;
+		public int version = -1;
 		public final FogResult cached = new FogResult();
 
 		public boolean returnCached(final int pX, final int pZ, final float r,
 				@Nonnull final EntityViewRenderEvent.RenderFogEvent event) {
-			return !this.doScan && pX == this.posX && pZ == this.posZ && r == this.rain
+			return this.version == BiomeCache.getVersion() && pX == this.posX && pZ == this.posZ && r == this.rain
 					&& this.lastFarPlane == event.farPlaneDistance && this.cached.isValid(event);
 		}
 	}
 
 	protected final Context[] context = { new Context(), new Context(), new Context() };
+	protected final double[] sums = new double[BiomeCache.SUM_CHANNELS];
 
 	public BiomeFogRangeCalculator() {
 
@@ -76,9 +76,7 @@ public class BiomeFogRangeCalculator extends VanillaFogRangeCalculator {
 	public FogResult calculate(@Nonnull final EntityViewRenderEvent.RenderFogEvent event) {
 
 		final EntityLivingBase player = EnvironState.getPlayer();
-		final World world = EnvironState.getWorld();
 		final int playerX = MathStuff.floor(player.posX);
-		final int playerY = MathStuff.floor(player.posY);
 		final int playerZ = MathStuff.floor(player.posZ);
 		final float rainStr = Weather.getIntensityLevel();
 
@@ -87,35 +85,22 @@ public class BiomeFogRangeCalculator extends VanillaFogRangeCalculator {
 		if (ctx.returnCached(playerX, playerZ, rainStr, event))
 			return ctx.cached;
 
-		float fpDistanceBiomeFog = 0F;
-		float weightBiomeFog = 0;
-
-		final boolean isRaining = Weather.isRaining();
 		ctx.rain = rainStr;
-		ctx.doScan = false;
-
-		for (int x = -DISTANCE; x <= DISTANCE; ++x) {
-			for (int z = -DISTANCE; z <= DISTANCE; ++z) {
-				final int theX = playerX + x;
-				final int theZ = playerZ + z;
-				final BiomeGenBase biome = world.getBiomeGenForCoords(theX, theZ);
-				float distancePart = 1F;
-				final float weightPart = 1;
-
-				ctx.doScan = ctx.doScan | !world.blockExists(theX, playerY, theZ);
-
-				if (isRaining && BiomeRegistry.hasDust(biome)) {
-					distancePart = 1F - DUST_FOG_IMPACT * rainStr;
-				} else if (BiomeRegistry.hasFog(biome)) {
-					distancePart = BiomeRegistry.getFogDensity(biome);
-				}
-
-				fpDistanceBiomeFog += distancePart;
-				weightBiomeFog += weightPart;
-			}
-		}
+		ctx.version = BiomeCache.getVersion();
+
+		BiomeCache.sum(playerX, playerZ, DISTANCE, this.sums);
+
+		// Dust only thickens the fog while it is raining; otherwise those
+		// columns contribute their regular fog density.
+		final float fpDistanceBiomeFog;
+		if (Weather.isRaining())
+			fpDistanceBiomeFog = (float) (this.sums[BiomeCache.SUM_FOG]
+					+ this.sums[BiomeCache.SUM_DUST] * (1F - DUST_FOG_IMPACT * rainStr));
+		else
+			fpDistanceBiomeFog = (float) (this.sums[BiomeCache.SUM_FOG] + this.sums[BiomeCache.SUM_DUST_FOG]);
+		final float weightBiomeFog = (float) this.sums[BiomeCache.SUM_AREA];
 
-		final float weightMixed = (DISTANCE * 2 + 1) * (DISTANCE * 2 + 1);
+		final float weightMixed = Math.max(weightBiomeFog, 1F);
 		final float weightDefault = weightMixed - weightBiomeFog;
 
 		final float fpDistanceBiomeFogAvg = (weightBiomeFog == 0) ? 0 : fpDistanceBiomeFog / weightBiomeFog;
@@ -26,12 +26,14 @@ package org.blockartistry.mod.DynSurround.client.footsteps;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Scanner;
 
 import org.blockartistry.mod.DynSurround.ModLog;
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.IClientEffectHandler;
+import org.blockartistry.mod.DynSurround.client.footsteps.engine.interfaces.ILibrary;
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.ForgeDictionary;
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.PFIsolator;
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.PFReaderH;
@@ -48,6 +50,7 @@ import org.blockartistry.mod.DynSurround.client.footsteps.mcpackage.interfaces.I
 import org.blockartistry.mod.DynSurround.client.footsteps.parsers.AcousticsJsonReader;
 import org.blockartistry.mod.DynSurround.client.footsteps.parsers.Register;
 import org.blockartistry.mod.DynSurround.client.footsteps.util.property.simple.ConfigProperty;
+import org.blockartistry.mod.DynSurround.client.sound.cache.SoundWarmup;
 
 import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
@@ -194,6 +197,8 @@ public class Footsteps implements IResourceManagerReloadListener, IClientEffectH
 		this.isolator.setAcoustics(acoustics);
 		this.isolator.setSoundPlayer(new UserConfigSoundPlayerWrapper(acoustics));
 		this.isolator.setDefaultStepPlayer(acoustics);
+
+		SoundWarmup.warmUp("acoustics", acoustics.getSounds());
 	}
 
 	@Override
@@ -230,4 +235,10 @@ public class Footsteps implements IResourceManagerReloadListener, IClientEffectH
 	public IBlockMap getBlockMap() {
 		return this.isolator.getBlockMap();
 	}
+
+	public void collectSounds(final Collection<String> sounds) {
+		final ILibrary acoustics = this.isolator.getAcoustics();
+		if (acoustics != null)
+			sounds.addAll(acoustics.getSounds());
+	}
 }
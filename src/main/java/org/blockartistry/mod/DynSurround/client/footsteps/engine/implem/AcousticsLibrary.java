@@ -24,8 +24,10 @@
 
 package org.blockartistry.mod.DynSurround.client.footsteps.engine.implem;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.blockartistry.mod.DynSurround.ModLog;
@@ -43,6 +45,7 @@ import cpw.mods.fml.relauncher.SideOnly;
 @SideOnly(Side.CLIENT)
 public abstract class AcousticsLibrary implements ILibrary {
 	private final Map<String, IAcoustic> acoustics = new LinkedHashMap<>();
+	private final Set<String> sounds = new HashSet<>();
 
 	public AcousticsLibrary() {
 	}
@@ -52,6 +55,16 @@ public abstract class AcousticsLibrary implements ILibrary {
 		this.acoustics.put(acoustic.getName(), acoustic);
 	}
 
+	@Override
+	public void addSound(final String soundName) {
+		this.sounds.add(soundName);
+	}
+
+	@Override
+	public Set<String> getSounds() {
+		return this.sounds;
+	}
+
 	@Override
 	public void playAcoustic(final Object location, final Association acousticName, final EventType event) {
 		playAcoustic(location, acousticName.getData(), event, null);
@@ -24,6 +24,8 @@
 
 package org.blockartistry.mod.DynSurround.client.footsteps.engine.interfaces;
 
+import java.util.Set;
+
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.Association;
 
 import cpw.mods.fml.relauncher.Side;
@@ -51,4 +53,14 @@ public interface ILibrary {
 	 * Run various things, such as queued sounds.
 	 */
     void think();
+
+	/**
+	 * Records a sound name referenced by one of the acoustics.
+	 */
+    void addSound(final String soundName);
+
+	/**
+	 * Returns the sound names referenced by the acoustics in the library.
+	 */
+    Set<String> getSounds();
 }
@@ -39,6 +39,7 @@ import org.blockartistry.mod.DynSurround.client.footsteps.engine.interfaces.ISou
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.Association;
 import org.blockartistry.mod.DynSurround.client.footsteps.mcpackage.interfaces.IDefaultStepPlayer;
 import org.blockartistry.mod.DynSurround.client.footsteps.mcpackage.interfaces.IIsolator;
+import org.blockartistry.mod.DynSurround.client.sound.SoundMetrics;
 import org.blockartistry.mod.DynSurround.util.MyUtils;
 import org.blockartistry.mod.DynSurround.util.random.XorShiftRandom;
 
@@ -84,6 +85,7 @@ public class AcousticsManager extends AcousticsLibrary implements ISoundPlayer,
 				}
 
 				entity.playSound(soundType.getStepResourcePath(), soundType.getVolume() * 0.15F, soundType.getPitch());
+				SoundMetrics.play(SoundMetrics.Source.FOOTSTEP);
 			}
 		} catch (final Throwable t) {
 			ModLog.error("Unable to play step", t);
@@ -124,6 +126,7 @@ public class AcousticsManager extends AcousticsLibrary implements ISoundPlayer,
 
 		try {
 			location.playSound(soundName, volume, pitch);
+			SoundMetrics.play(SoundMetrics.Source.FOOTSTEP);
 		} catch (final Throwable t) {
 			ModLog.error("Unable to play sound", t);
 		}
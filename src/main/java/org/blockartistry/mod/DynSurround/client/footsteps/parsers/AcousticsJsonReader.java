@@ -69,6 +69,8 @@ public class AcousticsJsonReader {
 
 	private final float DIVIDE = 100f;
 
+	private ILibrary library;
+
 	public AcousticsJsonReader(String root) {
 		this.soundRoot = root;
 	}
@@ -82,6 +84,7 @@ public class AcousticsJsonReader {
 	}
 
 	private void parseJSONUnsafe(final String jsonString, final ILibrary lib) throws JsonParseException {
+		this.library = lib;
 		final JsonObject json = new JsonParser().parse(jsonString).getAsJsonObject();
 
 		if (!json.get("type").getAsString().equals("library"))
@@ -223,11 +226,14 @@ public class AcousticsJsonReader {
 	}
 
 	private void setupSoundName(final BasicAcoustic a, final String soundName) {
+		final String name;
 		if (soundName.charAt(0) != '@') {
-			a.setSoundName(Module.MOD_ID + ":" + this.soundRoot + soundName);
+			name = Module.MOD_ID + ":" + this.soundRoot + soundName;
 		} else {
-			a.setSoundName(soundName.replace("@", ""));
+			name = soundName.replace("@", "");
 		}
+		a.setSoundName(name);
+		this.library.addSound(name);
 	}
 
 	private void setupClassics(final BasicAcoustic a, final JsonObject solved) {
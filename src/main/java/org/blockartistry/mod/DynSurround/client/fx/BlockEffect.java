@@ -25,8 +25,6 @@ package org.blockartistry.mod.DynSurround.client.fx;
 
 import java.util.Random;
 
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
-
 import net.minecraft.block.Block;
 import net.minecraft.world.World;
 
@@ -50,11 +48,17 @@ public abstract class BlockEffect {
 		return this.chance;
 	}
 
-	public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
+	/*
+	 * Effects are handed primitive coordinates so that probing blocks does
+	 * not allocate unless an effect actually fires.
+	 */
+	public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+			final Random random) {
 		return random.nextInt(getChance()) == 0;
 	}
 
-	public abstract void doEffect(final Block block, final World world, final BlockPos pos, final Random random);
+	public abstract void doEffect(final Block block, final World world, final int x, final int y, final int z,
+			final Random random);
 
 	@Override
 	public String toString() {
@@ -24,26 +24,28 @@
 
 package org.blockartistry.mod.DynSurround.client.fx;
 
-import java.util.List;
 import java.util.Random;
 
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
 import org.blockartistry.mod.DynSurround.client.IClientEffectHandler;
+import org.blockartistry.mod.DynSurround.client.fx.particle.ParticlePool;
 import org.blockartistry.mod.DynSurround.client.sound.SoundEffect;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
-import org.blockartistry.mod.DynSurround.compat.MCHelper;
 import org.blockartistry.mod.DynSurround.data.BlockRegistry;
-import org.blockartistry.mod.DynSurround.util.random.LCGRandom;
+import org.blockartistry.mod.DynSurround.data.Conditions;
 import org.blockartistry.mod.DynSurround.util.random.XorShiftRandom;
 
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.block.Block;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 
 /*
  * Based on doVoidParticles().
@@ -52,11 +54,73 @@ import net.minecraft.world.World;
 public class BlockEffectHandler implements IClientEffectHandler {
 
 	private static final Random random = new XorShiftRandom();
-	private static final LCGRandom lcg = new LCGRandom();
 	private static final double RATIO = 0.0335671847202175D;
 
-	private static int randomRange(final int range) {
-		return lcg.nextInt(range) - lcg.nextInt(range);
+	private static BlockEffectIndex index;
+
+	/*
+	 * The random probes are offset from the player by the difference of two
+	 * uniform values in [0, range) on each axis, so an offset d is picked
+	 * with weight (range - |d|) out of range^2. Rather than probing, the
+	 * sections around the player that hold effect blocks are visited and
+	 * the number of probes that would have landed in each is drawn from a
+	 * Poisson distribution with the same mean. Sections without effect
+	 * blocks, which is most of them, are skipped outright.
+	 */
+	private static int weight(final int d, final int range) {
+		final int a = Math.abs(d);
+		return a < range ? range - a : 0;
+	}
+
+	private static int mass(final int lo, final int center, final int range) {
+		int total = 0;
+		for (int i = 0; i < 16; i++)
+			total += weight(lo + i - center, range);
+		return total;
+	}
+
+	// Picks a coordinate in [lo, lo + 16) using the probe weights
+	private static int pick(final int lo, final int center, final int range, final int mass) {
+		int r = random.nextInt(mass);
+		for (int i = 0; i < 15; i++) {
+			r -= weight(lo + i - center, range);
+			if (r < 0)
+				return lo + i;
+		}
+		return lo + 15;
+	}
+
+	private static int poisson(final double mean) {
+		if (mean > 30.0D)
+			return Math.max(0, (int) Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+		final double limit = Math.exp(-mean);
+		int k = 0;
+		double p = random.nextDouble();
+		while (p > limit) {
+			k++;
+			p *= random.nextDouble();
+		}
+		return k;
+	}
+
+	/*
+	 * Coordinates stay primitive the whole way down so that a probe only
+	 * allocates if an effect fires.
+	 */
+	private static void probe(final World world, final int x, final int y, final int z,
+			final Conditions conditions) {
+		final Block block = world.getBlock(x, y, z);
+		final int meta = world.getBlockMetadata(x, y, z);
+		final BlockEffect[] chain = BlockRegistry.getEffects(block, meta);
+		for (int i = 0; i < chain.length; i++) {
+			final BlockEffect effect = chain[i];
+			if (effect.trigger(block, world, x, y, z, random))
+				effect.doEffect(block, world, x, y, z, random);
+		}
+
+		final SoundEffect sound = BlockRegistry.getSound(block, meta, random, conditions);
+		if (sound != null)
+			sound.doEffect(block, world, x, y, z, random);
 	}
 
 	@Override
@@ -64,41 +128,96 @@ public class BlockEffectHandler implements IClientEffectHandler {
 		if (Minecraft.getMinecraft().isGamePaused())
 			return;
 
-		final BlockPos playerPos = new BlockPos(player);
-		final String conditions = EnvironState.getConditions();
+		if (index == null || !index.isFor(world)) {
+			if (index != null)
+				index.detach();
+			index = new BlockEffectIndex(world);
+		}
+
+		final Conditions conditions = EnvironState.getConditions();
 		final int RANGE = ModOptions.specialEffectRange;
 		final int CHECK_COUNT = (int) (Math.pow(RANGE * 2 - 1, 3) * RATIO);
+		final double norm = (double) CHECK_COUNT / Math.pow(RANGE, 6);
 
-		for (int i = 0; i < CHECK_COUNT; i++) {
-			final BlockPos pos = playerPos.add(randomRange(RANGE), randomRange(RANGE), randomRange(RANGE));
-			final Block block = MCHelper.getBlock(world, pos);
-			if (block != Blocks.air) {
-				final List<BlockEffect> chain = BlockRegistry.getEffects(block);
-				if (chain != null) {
-					for (final BlockEffect effect : chain)
-						if (effect.trigger(block, world, pos, random))
-							effect.doEffect(block, world, pos, random);
-				}
+		final int px = MathHelper.floor_double(player.posX);
+		final int py = MathHelper.floor_double(player.posY);
+		final int pz = MathHelper.floor_double(player.posZ);
+		final int minY = Math.max(0, py - RANGE + 1) >> 4;
+		final int maxY = Math.min(255, py + RANGE - 1) >> 4;
 
-				final SoundEffect sound = BlockRegistry.getSound(block, random, conditions);
-				if (sound != null)
-					sound.doEffect(block, world, pos, random);
+		for (int cx = (px - RANGE + 1) >> 4; cx <= (px + RANGE - 1) >> 4; cx++) {
+			final int x0 = cx << 4;
+			final int mx = mass(x0, px, RANGE);
+			for (int cz = (pz - RANGE + 1) >> 4; cz <= (pz + RANGE - 1) >> 4; cz++) {
+				final int z0 = cz << 4;
+				final int mz = mass(z0, pz, RANGE);
+				for (int sy = minY; sy <= maxY; sy++) {
+					final BlockEffectIndex.Section section = index.get(cx, sy, cz);
+					if (section == null || section.getCount() == 0)
+						continue;
+
+					final int y0 = sy << 4;
+					final int my = mass(y0, py, RANGE);
+					final double mean = norm * mx * my * mz;
+
+					if (mean <= section.getCount()) {
+						// Fewer probes than blocks: place the probes and
+						// keep the ones that hit
+						for (int n = poisson(mean); n > 0; n--) {
+							final int x = pick(x0, px, RANGE, mx);
+							final int y = pick(y0, py, RANGE, my);
+							final int z = pick(z0, pz, RANGE, mz);
+							if (section.contains(x, y, z))
+								probe(world, x, y, z, conditions);
+						}
+					} else {
+						// Fewer blocks than probes: draw the hits per block
+						for (int idx = section.next(0); idx >= 0; idx = section.next(idx + 1)) {
+							final int x = x0 + (idx & 15);
+							final int y = y0 + (idx >> 8);
+							final int z = z0 + ((idx >> 4) & 15);
+							final double w = norm * weight(x - px, RANGE) * weight(y - py, RANGE)
+									* weight(z - pz, RANGE);
+							if (w > 0)
+								for (int n = poisson(w); n > 0; n--)
+									probe(world, x, y, z, conditions);
+						}
+					}
+				}
 			}
 		}
 
 		if (EnvironState.isPlayerOnGround() && EnvironState.isPlayerMoving()) {
-			final BlockPos pos = playerPos.down(2);
-			final Block block = MCHelper.getBlock(world, pos);
+			final int y = py - 2;
+			final Block block = world.getBlock(px, y, pz);
 			if (block != Blocks.air && !block.getMaterial().isLiquid()) {
-				final SoundEffect sound = BlockRegistry.getStepSound(block, random, conditions);
+				final int meta = world.getBlockMetadata(px, y, pz);
+				final SoundEffect sound = BlockRegistry.getStepSound(block, meta, random, conditions);
 				if (sound != null)
-					sound.doEffect(block, world, pos, random);
+					sound.doEffect(block, world, px, y, pz, random);
 			}
 		}
 	}
 
+	@SubscribeEvent
+	public void chunkUnload(final ChunkEvent.Unload event) {
+		if (index != null && index.isFor(event.world))
+			index.unloadChunk(event.getChunk().xPosition, event.getChunk().zPosition);
+	}
+
+	@SubscribeEvent
+	public void worldUnload(final WorldEvent.Unload event) {
+		if (index != null && index.isFor(event.world)) {
+			index.detach();
+			index = null;
+		}
+		// Pooled particles still point at the world
+		if (event.world.isRemote)
+			ParticlePool.clearAll();
+	}
+
 	@Override
 	public boolean hasEvents() {
-		return false;
+		return true;
 	}
 }
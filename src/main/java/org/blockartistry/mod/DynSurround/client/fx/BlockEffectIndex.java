@@ -0,0 +1,257 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.fx;
+
+import org.blockartistry.mod.DynSurround.data.BlockRegistry;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.IWorldAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/*
+ * Index of the blocks within each 16x16x16 chunk section that have random
+ * effects or sounds in the BlockRegistry. Sections are scanned the first
+ * time they are asked for and then kept current through the world's block
+ * change notifications. Chunk data arriving from the server shows up as a
+ * range update, which drops the affected sections so they are scanned
+ * again on demand.
+ */
+@SideOnly(Side.CLIENT)
+public final class BlockEffectIndex implements IWorldAccess {
+
+	public static final class Section {
+		private final long[] bits = new long[64];
+		private int count;
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public boolean contains(final int x, final int y, final int z) {
+			final int idx = index(x, y, z);
+			return (this.bits[idx >>> 6] & (1L << idx)) != 0;
+		}
+
+		/*
+		 * Returns the next set index at or after idx, -1 if there is none.
+		 * Indices decode as y << 8 | z << 4 | x.
+		 */
+		public int next(final int idx) {
+			int word = idx >>> 6;
+			if (word >= 64)
+				return -1;
+			long bits = this.bits[word] & (-1L << idx);
+			while (bits == 0) {
+				if (++word == 64)
+					return -1;
+				bits = this.bits[word];
+			}
+			return (word << 6) + Long.numberOfTrailingZeros(bits);
+		}
+
+		private void set(final int idx, final boolean flag) {
+			final long mask = 1L << idx;
+			final boolean current = (this.bits[idx >>> 6] & mask) != 0;
+			if (current != flag) {
+				this.bits[idx >>> 6] ^= mask;
+				this.count += flag ? 1 : -1;
+			}
+		}
+
+		private static int index(final int x, final int y, final int z) {
+			return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+		}
+	}
+
+	// Shared by every section without interesting blocks; never modified
+	private static final Section EMPTY = new Section();
+
+	private final World world;
+	private final TLongObjectHashMap<Section> sections = new TLongObjectHashMap<>();
+	private int version = BlockRegistry.getVersion();
+
+	public BlockEffectIndex(final World world) {
+		this.world = world;
+		world.addWorldAccess(this);
+	}
+
+	public boolean isFor(final World world) {
+		return this.world == world;
+	}
+
+	public void detach() {
+		this.world.removeWorldAccess(this);
+		this.sections.clear();
+	}
+
+	private static long key(final int cx, final int sy, final int cz) {
+		return ((long) cx & 0xFFFFFFL) << 32 | ((long) cz & 0xFFFFFFL) << 8 | (sy & 0xFF);
+	}
+
+	/*
+	 * Returns the section, scanning it if needed. Returns null if the chunk
+	 * is not loaded.
+	 */
+	public Section get(final int cx, final int sy, final int cz) {
+		if (this.version != BlockRegistry.getVersion()) {
+			this.version = BlockRegistry.getVersion();
+			this.sections.clear();
+		}
+
+		final long key = key(cx, sy, cz);
+		Section section = this.sections.get(key);
+		if (section == null) {
+			// The client hands back an empty placeholder for chunks that
+			// have not arrived yet
+			final Chunk chunk = this.world.getChunkFromChunkCoords(cx, cz);
+			if (chunk.isEmpty())
+				return null;
+			section = scan(chunk, sy);
+			this.sections.put(key, section);
+		}
+		return section;
+	}
+
+	private static Section scan(final Chunk chunk, final int sy) {
+		final ExtendedBlockStorage storage = chunk.getBlockStorageArray()[sy];
+		if (storage == null || storage.isEmpty())
+			return EMPTY;
+
+		// Read the raw block IDs and metadata rather than going through the
+		// Block objects
+		final byte[] lsb = storage.getBlockLSBArray();
+		final NibbleArray msb = storage.getBlockMSBArray();
+		final NibbleArray metadata = storage.getMetadataArray();
+
+		Section section = null;
+		for (int idx = 0; idx < 4096; idx++) {
+			final int x = idx & 15;
+			final int y = idx >> 8;
+			final int z = (idx >> 4) & 15;
+			int id = lsb[idx] & 255;
+			if (msb != null)
+				id |= msb.get(x, y, z) << 8;
+			if (id != 0 && BlockRegistry.hasEffectsOrSounds(id, metadata.get(x, y, z))) {
+				if (section == null)
+					section = new Section();
+				section.set(idx, true);
+			}
+		}
+		return section != null ? section : EMPTY;
+	}
+
+	public void unloadChunk(final int cx, final int cz) {
+		for (int sy = 0; sy < 16; sy++)
+			this.sections.remove(key(cx, sy, cz));
+	}
+
+	@Override
+	public void markBlockForUpdate(final int x, final int y, final int z) {
+		if (y < 0 || y > 255)
+			return;
+
+		final long key = key(x >> 4, y >> 4, z >> 4);
+		Section section = this.sections.get(key);
+		if (section == null)
+			return;
+
+		final boolean interesting = BlockRegistry.hasEffectsOrSounds(this.world.getBlock(x, y, z),
+				this.world.getBlockMetadata(x, y, z));
+		if (section == EMPTY) {
+			if (!interesting)
+				return;
+			section = new Section();
+			this.sections.put(key, section);
+		}
+		section.set(Section.index(x, y, z), interesting);
+	}
+
+	@Override
+	public void markBlockRangeForRenderUpdate(final int x1, final int y1, final int z1, final int x2, final int y2,
+			final int z2) {
+		final int minY = Math.max(0, y1) >> 4;
+		final int maxY = Math.min(255, y2) >> 4;
+		for (int cx = x1 >> 4; cx <= x2 >> 4; cx++)
+			for (int cz = z1 >> 4; cz <= z2 >> 4; cz++)
+				for (int sy = minY; sy <= maxY; sy++)
+					this.sections.remove(key(cx, sy, cz));
+	}
+
+	@Override
+	public void markBlockForRenderUpdate(final int x, final int y, final int z) {
+	}
+
+	@Override
+	public void playSound(final String sound, final double x, final double y, final double z, final float volume,
+			final float pitch) {
+	}
+
+	@Override
+	public void playSoundToNearExcept(final EntityPlayer player, final String sound, final double x, final double y,
+			final double z, final float volume, final float pitch) {
+	}
+
+	@Override
+	public void spawnParticle(final String particle, final double x, final double y, final double z,
+			final double motionX, final double motionY, final double motionZ) {
+	}
+
+	@Override
+	public void onEntityCreate(final Entity entity) {
+	}
+
+	@Override
+	public void onEntityDestroy(final Entity entity) {
+	}
+
+	@Override
+	public void playRecord(final String record, final int x, final int y, final int z) {
+	}
+
+	@Override
+	public void broadcastSound(final int soundId, final int x, final int y, final int z, final int data) {
+	}
+
+	@Override
+	public void playAuxSFX(final EntityPlayer player, final int type, final int x, final int y, final int z,
+			final int data) {
+	}
+
+	@Override
+	public void destroyBlockPartially(final int breakerId, final int x, final int y, final int z,
+			final int progress) {
+	}
+
+	@Override
+	public void onStaticEntitiesChanged() {
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.fx;
+
+import java.util.Arrays;
+
+import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.block.Block;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/*
+ * Snapshot of the 3x3 columns around a block, reaching up and down a
+ * fixed number of blocks. Layers are read straight from the chunk block
+ * storage the first time they are asked for and held as packed
+ * id << 4 | meta values, so a trigger and the effect that follows it
+ * share the world reads. A snapshot is only good for the tick it was
+ * taken in.
+ */
+@SideOnly(Side.CLIENT)
+final class BlockNeighborhood {
+
+	private static final int COLUMNS = 9;
+
+	private final int reach;
+	private final int[] blocks;
+	private final boolean[] filled;
+	private final Chunk[] chunks = new Chunk[COLUMNS];
+
+	private World world;
+	private int x;
+	private int y;
+	private int z;
+	private int tick;
+
+	BlockNeighborhood(final int reach) {
+		this.reach = reach;
+		this.blocks = new int[(reach * 2 + 1) * COLUMNS];
+		this.filled = new boolean[reach * 2 + 1];
+	}
+
+	public boolean isAt(final World world, final int x, final int y, final int z) {
+		return this.world == world && this.x == x && this.y == y && this.z == z
+				&& this.tick == EnvironState.getTickCounter();
+	}
+
+	public BlockNeighborhood fill(final World world, final int x, final int y, final int z) {
+		this.world = world;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.tick = EnvironState.getTickCounter();
+		Arrays.fill(this.filled, false);
+
+		// The 3x3 columns span at most four chunks
+		for (int i = 0; i < COLUMNS; i++) {
+			final int cx = (x + i % 3 - 1) >> 4;
+			final int cz = (z + i / 3 - 1) >> 4;
+			Chunk chunk = null;
+			for (int j = 0; j < i && chunk == null; j++)
+				if (this.chunks[j].xPosition == cx && this.chunks[j].zPosition == cz)
+					chunk = this.chunks[j];
+			this.chunks[i] = chunk != null ? chunk : world.getChunkFromChunkCoords(cx, cz);
+		}
+		return this;
+	}
+
+	public int getReach() {
+		return this.reach;
+	}
+
+	public Block getBlock(final int dx, final int dy, final int dz) {
+		return Block.getBlockById(get(dx, dy, dz) >> 4);
+	}
+
+	public int getMetadata(final int dx, final int dy, final int dz) {
+		return get(dx, dy, dz) & 15;
+	}
+
+	// Same test as World.isAirBlock()
+	public boolean isAirBlock(final int dx, final int dy, final int dz) {
+		return getBlock(dx, dy, dz).isAir(this.world, this.x + dx, this.y + dy, this.z + dz);
+	}
+
+	public int count(final Block block) {
+		int count = 0;
+		for (int dy = -1; dy <= 1; dy++)
+			for (int dx = -1; dx <= 1; dx++)
+				for (int dz = -1; dz <= 1; dz++)
+					if (getBlock(dx, dy, dz) == block)
+						count++;
+		return count;
+	}
+
+	private int get(final int dx, final int dy, final int dz) {
+		final int layer = dy + this.reach;
+		if (!this.filled[layer]) {
+			read(layer);
+			this.filled[layer] = true;
+		}
+		return this.blocks[layer * COLUMNS + (dz + 1) * 3 + dx + 1];
+	}
+
+	private void read(final int layer) {
+		final int base = layer * COLUMNS;
+		final int ly = this.y + layer - this.reach;
+		if (ly < 0 || ly > 255) {
+			Arrays.fill(this.blocks, base, base + COLUMNS, 0);
+			return;
+		}
+
+		for (int i = 0; i < COLUMNS; i++) {
+			final ExtendedBlockStorage storage = this.chunks[i].getBlockStorageArray()[ly >> 4];
+			if (storage == null) {
+				this.blocks[base + i] = 0;
+				continue;
+			}
+			final int bx = (this.x + i % 3 - 1) & 15;
+			final int by = ly & 15;
+			final int bz = (this.z + i / 3 - 1) & 15;
+			int id = storage.getBlockLSBArray()[by << 8 | bz << 4 | bx] & 255;
+			final NibbleArray msb = storage.getBlockMSBArray();
+			if (msb != null)
+				id |= msb.get(bx, by, bz) << 8;
+			this.blocks[base + i] = id << 4 | storage.getMetadataArray().get(bx, by, bz);
+		}
+	}
+}
@@ -32,7 +32,6 @@ import org.blockartistry.mod.DynSurround.client.fx.particle.EntityFireJetFX;
 import org.blockartistry.mod.DynSurround.client.fx.particle.EntityFountainJetFX;
 import org.blockartistry.mod.DynSurround.client.fx.particle.EntityJetFX;
 import org.blockartistry.mod.DynSurround.client.fx.particle.EntitySteamJetFX;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLiquid;
@@ -49,22 +48,36 @@ public abstract class JetEffect extends BlockEffect {
 
 	private static final int MAX_STRENGTH = 10;
 
-	private static int countBlocks(final World world, final BlockPos pos, final Block block, final int dir) {
+	// Shared by all jet effects; triggers and effects run on the client thread
+	private static final BlockNeighborhood neighborhood = new BlockNeighborhood(MAX_STRENGTH - 1);
+
+	/*
+	 * Returns the snapshot around the block, taking it if the one on hand
+	 * is for a different block or tick. Trigger takes it once the chance
+	 * roll passes and doEffect picks up the same one.
+	 */
+	protected static BlockNeighborhood neighborhood(final World world, final int x, final int y, final int z) {
+		if (!neighborhood.isAt(world, x, y, z))
+			neighborhood.fill(world, x, y, z);
+		return neighborhood;
+	}
+
+	private static int countBlocks(final BlockNeighborhood area, final Block block, final int dir) {
 		int count = 0;
-		int idx = pos.getY();
+		int dy = 0;
 		while (count < MAX_STRENGTH) {
-			if (world.getBlock(pos.getX(), idx, pos.getZ()) != block)
+			if (area.getBlock(0, dy, 0) != block)
 				return count;
 			count++;
-			idx += dir;
+			dy += dir;
 		}
 		return count;
 	}
 
 	// Takes into account partial blocks because of flow
-	private static double jetSpawnHeight(final World world, final BlockPos pos) {
-		final int meta = world.getBlockMetadata(pos.getX(), pos.getY(), pos.getZ());
-		return 1.1D - BlockLiquid.getLiquidHeightPercent(meta) + pos.getY();
+	private static double jetSpawnHeight(final BlockNeighborhood area, final int y) {
+		final int meta = area.getMetadata(0, 0, 0);
+		return 1.1D - BlockLiquid.getLiquidHeightPercent(meta) + y;
 	}
 
 	public JetEffect(final int chance) {
@@ -82,16 +95,20 @@ public abstract class JetEffect extends BlockEffect {
 		}
 
 		@Override
-		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
-			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ());
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random)
+					&& neighborhood(world, x, y, z).isAirBlock(0, 1, 0);
 		}
 
 		@Override
-		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-			final int lavaBlocks = countBlocks(world, pos, block, -1);
-			final double spawnHeight = jetSpawnHeight(world, pos);
-			final EntityJetFX effect = new EntityFireJetFX(lavaBlocks, world, pos.getX() + 0.5D, spawnHeight,
-					pos.getZ() + 0.5D);
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			final BlockNeighborhood area = neighborhood(world, x, y, z);
+			final int lavaBlocks = countBlocks(area, block, -1);
+			final double spawnHeight = jetSpawnHeight(area, y);
+			final EntityJetFX effect = EntityFireJetFX.create(lavaBlocks, world, x + 0.5D, spawnHeight,
+					z + 0.5D);
 			addEffect(effect);
 		}
 	}
@@ -102,16 +119,18 @@ public abstract class JetEffect extends BlockEffect {
 		}
 
 		@Override
-		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
-			return super.trigger(block, world, pos, random)
-					&& world.getBlock(pos.getX(), pos.getY() - 1, pos.getZ()).getMaterial().isSolid();
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random)
+					&& neighborhood(world, x, y, z).getBlock(0, -1, 0).getMaterial().isSolid();
 		}
 
 		@Override
-		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-			final int waterBlocks = countBlocks(world, pos, block, 1);
-			final EntityJetFX effect = new EntityBubbleJetFX(waterBlocks, world, pos.getX() + 0.5D, pos.getY() + 0.1D,
-					pos.getZ() + 0.5D);
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			final int waterBlocks = countBlocks(neighborhood(world, x, y, z), block, 1);
+			final EntityJetFX effect = EntityBubbleJetFX.create(waterBlocks, world, x + 0.5D, y + 0.1D,
+					z + 0.5D);
 			addEffect(effect);
 		}
 	}
@@ -122,30 +141,24 @@ public abstract class JetEffect extends BlockEffect {
 			super(chance);
 		}
 
-		protected int lavaCount(final World world, final BlockPos pos) {
-			int blockCount = 0;
-			for (int i = -1; i <= 1; i++)
-				for (int j = -1; j <= 1; j++)
-					for (int k = -1; k <= 1; k++)
-						if (world.getBlock(pos.getX() + i, pos.getY() + j, pos.getZ() + k) == Blocks.lava)
-							blockCount++;
-			return blockCount;
-		}
-
 		@Override
-		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
-			if (!super.trigger(block, world, pos, random) || !world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ()))
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			if (!super.trigger(block, world, x, y, z, random))
 				return false;
 
-			return lavaCount(world, pos) != 0;
+			final BlockNeighborhood area = neighborhood(world, x, y, z);
+			return area.isAirBlock(0, 1, 0) && area.count(Blocks.lava) != 0;
 		}
 
 		@Override
-		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-			final int strength = lavaCount(world, pos);
-			final double spawnHeight = jetSpawnHeight(world, pos);
-			final EntityJetFX effect = new EntitySteamJetFX(strength, world, pos.getX() + 0.5D, spawnHeight,
-					pos.getZ() + 0.5D);
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			final BlockNeighborhood area = neighborhood(world, x, y, z);
+			final int strength = area.count(Blocks.lava);
+			final double spawnHeight = jetSpawnHeight(area, y);
+			final EntityJetFX effect = EntitySteamJetFX.create(strength, world, x + 0.5D, spawnHeight,
+					z + 0.5D);
 			addEffect(effect);
 		}
 	}
@@ -157,14 +170,17 @@ public abstract class JetEffect extends BlockEffect {
 		}
 
 		@Override
-		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
-			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() - 1, pos.getZ());
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random)
+					&& neighborhood(world, x, y, z).isAirBlock(0, -1, 0);
 		}
 
 		@Override
-		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-			final EntityJetFX effect = new EntityDustJetFX(2, world, pos.getX() + 0.5D, pos.getY() - 0.2D,
-					pos.getZ() + 0.5D, block);
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			final EntityJetFX effect = EntityDustJetFX.create(2, world, x + 0.5D, y - 0.2D,
+					z + 0.5D, block);
 			addEffect(effect);
 		}
 	}
@@ -175,14 +191,17 @@ public abstract class JetEffect extends BlockEffect {
 		}
 
 		@Override
-		public boolean trigger(final Block block, final World world, final BlockPos pos, final Random random) {
-			return super.trigger(block, world, pos, random) && world.isAirBlock(pos.getX(), pos.getY() + 1, pos.getZ());
+		public boolean trigger(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			return super.trigger(block, world, x, y, z, random)
+					&& neighborhood(world, x, y, z).isAirBlock(0, 1, 0);
 		}
 
 		@Override
-		public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-			final EntityJetFX effect = new EntityFountainJetFX(5, world, pos.getX() + 0.5D, pos.getY() + 1.1D,
-					pos.getZ() + 0.5D, block);
+		public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+				final Random random) {
+			final EntityJetFX effect = EntityFountainJetFX.create(5, world, x + 0.5D, y + 1.1D,
+					z + 0.5D, block);
 			addEffect(effect);
 		}
 
@@ -31,15 +31,66 @@ import net.minecraft.client.particle.EntityFX;
 import net.minecraft.world.World;
 
 @SideOnly(Side.CLIENT)
-public class EntityBubbleJetFX extends EntityJetFX {
+public class EntityBubbleJetFX extends EntityJetFX implements ParticlePool.IPooled {
+
+	/*
+	 * Pooled EntityBubbleFX. The reset mirrors the vanilla constructor.
+	 */
+	protected static final class EntityJetBubbleFX extends EntityBubbleFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntityJetBubbleFX> POOL = new ParticlePool<>("jet bubble", 256);
+
+		public EntityJetBubbleFX(final World world, final double x, final double y, final double z, final double dX,
+				final double dY, final double dZ) {
+			super(world, x, y, z, dX, dY, dZ);
+		}
+
+		public static EntityJetBubbleFX create(final World world, final double x, final double y, final double z,
+				final double dX, final double dY, final double dZ) {
+			final EntityJetBubbleFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityJetBubbleFX(world, x, y, z, dX, dY, dZ);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 1.0F;
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F * (fx.rand.nextFloat() * 0.6F + 0.2F);
+			fx.motionX = dX * 0.20000000298023224D + (float) (Math.random() * 2.0D - 1.0D) * 0.02F;
+			fx.motionY = dY * 0.20000000298023224D + (float) (Math.random() * 2.0D - 1.0D) * 0.02F;
+			fx.motionZ = dZ * 0.20000000298023224D + (float) (Math.random() * 2.0D - 1.0D) * 0.02F;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (8.0D / (Math.random() * 0.8D + 0.2D));
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+	}
+
+	private static final ParticlePool<EntityBubbleJetFX> POOL = new ParticlePool<>("bubble", 64);
+
+	public static EntityBubbleJetFX create(final int strength, final World world, final double x, final double y,
+			final double z) {
+		final EntityBubbleJetFX fx = POOL.acquire();
+		if (fx == null)
+			return new EntityBubbleJetFX(strength, world, x, y, z);
+		fx.reset(strength, world, x, y, z, 3);
+		return fx;
+	}
 
 	public EntityBubbleJetFX(final int strength, final World world, final double x, final double y, final double z) {
 		super(strength, world, x, y, z);
 	}
 
+	@Override
+	public void recycle() {
+		POOL.release(this);
+	}
+
 	@Override
 	protected EntityFX getJetParticle() {
-		return new EntityBubbleFX(this.worldObj, this.posX, this.posY, this.posZ, 0.0D, 0.5D + this.jetStrength / 10.0D,
-				0.0D);
+		return EntityJetBubbleFX.create(this.worldObj, this.posX, this.posY, this.posZ, 0.0D,
+				0.5D + this.jetStrength / 10.0D, 0.0D);
 	}
 }
@@ -32,9 +32,16 @@ import net.minecraft.client.particle.EntityFX;
 import net.minecraft.world.World;
 
 @SideOnly(Side.CLIENT)
-public class EntityDustJetFX extends EntityJetFX {
+public class EntityDustJetFX extends EntityJetFX implements ParticlePool.IPooled {
 
-	protected static final class EntityDustFX extends EntityBlockDustFX {
+	/*
+	 * The reset mirrors the EntityBlockDustFX constructor. The block
+	 * private to EntityDiggingFX keeps the value the instance was first
+	 * built with; it is only used to tint particles, which jets do not.
+	 */
+	protected static final class EntityDustFX extends EntityBlockDustFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntityDustFX> POOL = new ParticlePool<>("dust mote", 256);
 
 		public EntityDustFX(final World world, final double x, final double y, final double z, final Block block) {
 			super(world, x + RANDOM.nextGaussian() * 0.2D, y, z + RANDOM.nextGaussian() * 0.2D, 0, 0, 0, block, 0);
@@ -42,9 +49,43 @@ public class EntityDustJetFX extends EntityJetFX {
 			setPosition(this.posX, this.posY, this.posZ);
 		}
 
+		public static EntityDustFX create(final World world, final double x, final double y, final double z,
+				final Block block) {
+			final EntityDustFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityDustFX(world, x, y, z, block);
+
+			ParticlePool.reset(fx, world, x + RANDOM.nextGaussian() * 0.2D, y, z + RANDOM.nextGaussian() * 0.2D);
+			fx.setParticleIcon(block.getIcon(0, 0));
+			fx.particleGravity = block.blockParticleGravity;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 0.6F;
+			fx.particleScale = fx.rand.nextFloat() * 0.5F + 0.5F;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (4.0F / (fx.rand.nextFloat() * 0.9F + 0.1F));
+			fx.multipleParticleScaleBy((float) (0.3F + RANDOM.nextGaussian() / 30.0F));
+			fx.setPosition(fx.posX, fx.posY, fx.posZ);
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
 	}
 
-	protected final Block block;
+	private static final ParticlePool<EntityDustJetFX> POOL = new ParticlePool<>("dust", 64);
+
+	protected Block block;
+
+	public static EntityDustJetFX create(final int strength, final World world, final double x, final double y,
+			final double z, final Block block) {
+		final EntityDustJetFX fx = POOL.acquire();
+		if (fx == null)
+			return new EntityDustJetFX(strength, world, x, y, z, block);
+		fx.reset(strength, world, x, y, z, 2);
+		fx.block = block;
+		return fx;
+	}
 
 	public EntityDustJetFX(final int strength, final World world, final double x, final double y, final double z,
 			final Block block) {
@@ -52,9 +93,14 @@ public class EntityDustJetFX extends EntityJetFX {
 		this.block = block;
 	}
 
+	@Override
+	public void recycle() {
+		POOL.release(this);
+	}
+
 	@Override
 	protected EntityFX getJetParticle() {
-		return new EntityDustFX(this.worldObj, this.posX, this.posY, this.posZ, this.block);
+		return EntityDustFX.create(this.worldObj, this.posX, this.posY, this.posZ, this.block);
 	}
 
 }
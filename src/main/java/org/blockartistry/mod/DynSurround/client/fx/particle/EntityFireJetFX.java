@@ -26,38 +26,93 @@ package org.blockartistry.mod.DynSurround.client.fx.particle;
 
 import org.blockartistry.mod.DynSurround.client.sound.SoundEffect;
 import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
 
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.client.particle.EntityFX;
 import net.minecraft.client.particle.EntityFlameFX;
-import net.minecraft.client.particle.EntityLavaFX;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
 
 @SideOnly(Side.CLIENT)
-public class EntityFireJetFX extends EntityJetFX {
+public class EntityFireJetFX extends EntityJetFX implements ParticlePool.IPooled {
 
 	private static final SoundEffect FIRE = new SoundEffect("minecraft:fire.fire");
 
-	protected final boolean isLava;
+	/*
+	 * Pooled EntityFlameFX. The reset mirrors the vanilla constructor.
+	 */
+	protected static final class EntityJetFlameFX extends EntityFlameFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntityJetFlameFX> POOL = new ParticlePool<>("jet flame", 256);
+
+		public EntityJetFlameFX(final World world, final double x, final double y, final double z, final double dX,
+				final double dY, final double dZ) {
+			super(world, x, y, z, dX, dY, dZ);
+		}
+
+		public static EntityJetFlameFX create(final World world, final double x, final double y, final double z,
+				final double dX, final double dY, final double dZ) {
+			final EntityJetFlameFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityJetFlameFX(world, x, y, z, dX, dY, dZ);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			ParticlePool.resetMotion(fx, dX, dY, dZ);
+			fx.motionX = fx.motionX * 0.009999999776482582D + dX;
+			fx.motionY = fx.motionY * 0.009999999776482582D + dY;
+			fx.motionZ = fx.motionZ * 0.009999999776482582D + dZ;
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F;
+			fx.flameScale = fx.particleScale;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 1.0F;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (8.0D / (Math.random() * 0.8D + 0.2D)) + 4;
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+	}
+
+	private static final ParticlePool<EntityFireJetFX> POOL = new ParticlePool<>("fire", 64);
+
+	protected boolean isLava;
+
+	public static EntityFireJetFX create(final int strength, final World world, final double x, final double y,
+			final double z) {
+		final EntityFireJetFX fx = POOL.acquire();
+		if (fx == null)
+			return new EntityFireJetFX(strength, world, x, y, z);
+		fx.reset(strength, world, x, y, z, 3);
+		fx.isLava = RANDOM.nextInt(3) == 0;
+		return fx;
+	}
 
 	public EntityFireJetFX(final int strength, final World world, final double x, final double y, final double z) {
 		super(strength, world, x, y, z);
 		this.isLava = RANDOM.nextInt(3) == 0;
 	}
 
+	@Override
+	public void recycle() {
+		POOL.release(this);
+	}
+
 	@Override
 	public void playSound() {
-		SoundManager.playSoundAt(new BlockPos(this), FIRE, 0);
+		SoundManager.playSoundAt(MathHelper.floor_double(this.posX), MathHelper.floor_double(this.posY),
+				MathHelper.floor_double(this.posZ), FIRE, 0);
 	}
 
 	@Override
 	protected EntityFX getJetParticle() {
+		// Same particle as the lava splash so they share a pool
 		if (this.isLava) {
-			return new EntityLavaFX(this.worldObj, this.posX, this.posY, this.posZ);
+			return ParticleFactory.EntityLavaSplashFX.create(this.worldObj, this.posX, this.posY, this.posZ);
 		}
-		final EntityFlameFX flame = new EntityFlameFX(this.worldObj, this.posX, this.posY, this.posZ, 0.0D,
+		final EntityFlameFX flame = EntityJetFlameFX.create(this.worldObj, this.posX, this.posY, this.posZ, 0.0D,
 				this.jetStrength / 10.0D, 0.0D);
 		flame.flameScale *= this.jetStrength;
 		return flame;
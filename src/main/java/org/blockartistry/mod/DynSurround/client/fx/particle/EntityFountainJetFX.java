@@ -32,9 +32,16 @@ import net.minecraft.client.particle.EntityFX;
 import net.minecraft.world.World;
 
 @SideOnly(Side.CLIENT)
-public class EntityFountainJetFX extends EntityJetFX {
+public class EntityFountainJetFX extends EntityJetFX implements ParticlePool.IPooled {
 
-	protected static final class EntityFoundtainParitcleFX extends EntityBlockDustFX {
+	/*
+	 * The reset mirrors the EntityBlockDustFX constructor. The block
+	 * private to EntityDiggingFX keeps the value the instance was first
+	 * built with; it is only used to tint particles, which jets do not.
+	 */
+	protected static final class EntityFoundtainParitcleFX extends EntityBlockDustFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntityFoundtainParitcleFX> POOL = new ParticlePool<>("fountain spray", 256);
 
 		public EntityFoundtainParitcleFX(final World world, final double x, final double y, final double z,
 				final double dX, final double dY, final double dZ, final Block block) {
@@ -43,9 +50,46 @@ public class EntityFountainJetFX extends EntityJetFX {
 			setPosition(this.posX, this.posY, this.posZ);
 		}
 
+		public static EntityFoundtainParitcleFX create(final World world, final double x, final double y,
+				final double z, final double dX, final double dY, final double dZ, final Block block) {
+			final EntityFoundtainParitcleFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityFoundtainParitcleFX(world, x, y, z, dX, dY, dZ, block);
+
+			ParticlePool.reset(fx, world, x + RANDOM.nextGaussian() * 0.2D, y, z + RANDOM.nextGaussian() * 0.2D);
+			fx.motionX = dX;
+			fx.motionY = dY;
+			fx.motionZ = dZ;
+			fx.setParticleIcon(block.getIcon(0, 0));
+			fx.particleGravity = block.blockParticleGravity;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 0.6F;
+			fx.particleScale = fx.rand.nextFloat() * 0.5F + 0.5F;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (4.0F / (fx.rand.nextFloat() * 0.9F + 0.1F));
+			fx.multipleParticleScaleBy((float) (0.3F + RANDOM.nextGaussian() / 10.0F));
+			fx.setPosition(fx.posX, fx.posY, fx.posZ);
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
 	}
 
-	protected final Block block;
+	private static final ParticlePool<EntityFountainJetFX> POOL = new ParticlePool<>("fountain", 64);
+
+	protected Block block;
+
+	public static EntityFountainJetFX create(final int strength, final World world, final double x, final double y,
+			final double z, final Block block) {
+		final EntityFountainJetFX fx = POOL.acquire();
+		if (fx == null)
+			return new EntityFountainJetFX(strength, world, x, y, z, block);
+		fx.reset(strength, world, x, y, z, 1);
+		fx.block = block;
+		return fx;
+	}
 
 	public EntityFountainJetFX(final int strength, final World world, final double x, final double y, final double z,
 			final Block block) {
@@ -53,11 +97,16 @@ public class EntityFountainJetFX extends EntityJetFX {
 		this.block = block;
 	}
 
+	@Override
+	public void recycle() {
+		POOL.release(this);
+	}
+
 	@Override
 	protected EntityFX getJetParticle() {
 		final double motionX = RANDOM.nextGaussian() * 0.03D;
 		final double motionZ = RANDOM.nextGaussian() * 0.03D;
-		return new EntityFoundtainParitcleFX(this.worldObj, this.posX, this.posY, this.posZ, motionX, 0.5D, motionZ,
+		return EntityFoundtainParitcleFX.create(this.worldObj, this.posX, this.posY, this.posZ, motionX, 0.5D, motionZ,
 				this.block);
 	}
 
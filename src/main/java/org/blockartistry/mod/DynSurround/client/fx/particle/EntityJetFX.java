@@ -45,8 +45,8 @@ public abstract class EntityJetFX extends EntityFX {
 
 	protected static final Random RANDOM = XorShiftRandom.current();
 
-	protected final int jetStrength;
-	protected final int updateFrequency;
+	protected int jetStrength;
+	protected int updateFrequency;
 
 	public EntityJetFX(final int strength, final World world, final double x, final double y, final double z) {
 		this(strength, world, x, y, z, 3);
@@ -62,6 +62,18 @@ public abstract class EntityJetFX extends EntityFX {
 		this.particleMaxAge = (RANDOM.nextInt(strength) + 2) * 20;
 	}
 
+	/*
+	 * Reinitializes a pooled jet the way the constructor would.
+	 */
+	protected void reset(final int strength, final World world, final double x, final double y, final double z,
+			final int freq) {
+		ParticlePool.reset(this, world, x, y, z);
+		this.jetStrength = strength;
+		this.updateFrequency = freq;
+		this.particleAge = 0;
+		this.particleMaxAge = (RANDOM.nextInt(strength) + 2) * 20;
+	}
+
 	/*
 	 * Nothing to render so optimize out
 	 */
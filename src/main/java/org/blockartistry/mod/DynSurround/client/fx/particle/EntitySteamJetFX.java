@@ -31,14 +31,45 @@ import net.minecraft.client.particle.EntityFX;
 import net.minecraft.world.World;
 
 @SideOnly(Side.CLIENT)
-public class EntitySteamJetFX extends EntityJetFX {
+public class EntitySteamJetFX extends EntityJetFX implements ParticlePool.IPooled {
+
+	/*
+	 * The reset mirrors the EntityCloudFX constructor, including the scale
+	 * it renders with.
+	 */
+	protected static final class EntitySteamCloudFX extends EntityCloudFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntitySteamCloudFX> POOL = new ParticlePool<>("steam cloud", 256);
 
-	protected static final class EntitySteamCloudFX extends EntityCloudFX {
 		public EntitySteamCloudFX(final World world, final double x, final double y, final double z, final double dX,
 				final double dY, final double dZ) {
 			super(world, x, y, z, dX, dY, dZ);
 		}
 
+		public static EntitySteamCloudFX create(final World world, final double x, final double y, final double z,
+				final double dX, final double dY, final double dZ) {
+			final EntitySteamCloudFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntitySteamCloudFX(world, x, y, z, dX, dY, dZ);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			ParticlePool.resetMotion(fx, 0.0D, 0.0D, 0.0D);
+			fx.motionX = fx.motionX * 0.10000000149011612D + dX;
+			fx.motionY = fx.motionY * 0.10000000149011612D + dY;
+			fx.motionZ = fx.motionZ * 0.10000000149011612D + dZ;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 1.0F - (float) (Math.random() * 0.30000001192092896D);
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F * 0.75F * 2.5F;
+			fx.field_70569_a = fx.particleScale;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) ((int) (8.0D / (Math.random() * 0.8D + 0.3D)) * 2.5F);
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+
 		@Override
 		public void onUpdate() {
 			this.prevPosX = this.posX;
@@ -62,15 +93,31 @@ public class EntitySteamJetFX extends EntityJetFX {
 		}
 	}
 
+	private static final ParticlePool<EntitySteamJetFX> POOL = new ParticlePool<>("steam", 64);
+
+	public static EntitySteamJetFX create(final int strength, final World world, final double x, final double y,
+			final double z) {
+		final EntitySteamJetFX fx = POOL.acquire();
+		if (fx == null)
+			return new EntitySteamJetFX(strength, world, x, y, z);
+		fx.reset(strength, world, x, y, z, 3);
+		return fx;
+	}
+
 	public EntitySteamJetFX(final int strength, final World world, final double x, final double y, final double z) {
 		super(strength, world, x, y, z);
 	}
 
+	@Override
+	public void recycle() {
+		POOL.release(this);
+	}
+
 	@Override
 	protected EntityFX getJetParticle() {
 		final double motionX = RANDOM.nextGaussian() * 0.02D;
 		final double motionZ = RANDOM.nextGaussian() * 0.02D;
-		return new EntitySteamCloudFX(this.worldObj, this.posX, this.posY, this.posZ, motionX, 0.1F, motionZ);
+		return EntitySteamCloudFX.create(this.worldObj, this.posX, this.posY, this.posZ, motionX, 0.1F, motionZ);
 	}
 
 }
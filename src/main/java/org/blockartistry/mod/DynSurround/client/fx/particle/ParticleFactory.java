@@ -29,6 +29,7 @@ import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.client.particle.EntityLavaFX;
 import net.minecraft.client.particle.EntityRainFX;
 import net.minecraft.client.particle.EntitySmokeFX;
+import net.minecraft.world.World;
 import org.blockartistry.mod.DynSurround.compat.IParticleFactory;
 
 @SideOnly(Side.CLIENT)
@@ -37,9 +38,112 @@ public class ParticleFactory {
 	private ParticleFactory() {
 	}
 
-	public static final IParticleFactory lavaSpark = (particleID, world, x, y, z, dX, dY, dZ, misc) -> new EntityLavaFX(world, x, y, z);
+	/*
+	 * Splash particles come and go by the thousand in a heavy storm, so
+	 * they are pooled. The resets mirror the vanilla constructors,
+	 * including the scales the vanilla classes render with.
+	 */
+	protected static final class EntityLavaSplashFX extends EntityLavaFX implements ParticlePool.IPooled {
 
-	public static final IParticleFactory smoke = (particleID, world, x, y, z, dX, dY, dZ, misc) -> new EntitySmokeFX(world, x, y, z, dX, dY, dZ);
+		private static final ParticlePool<EntityLavaSplashFX> POOL = new ParticlePool<>("lava", 256);
 
-	public static final IParticleFactory rain = (particleID, world, x, y, z, dX, dY, dZ, misc) -> new EntityRainFX(world, x, y, z);
+		public EntityLavaSplashFX(final World world, final double x, final double y, final double z) {
+			super(world, x, y, z);
+		}
+
+		public static EntityLavaSplashFX create(final World world, final double x, final double y, final double z) {
+			final EntityLavaSplashFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityLavaSplashFX(world, x, y, z);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			ParticlePool.resetMotion(fx, 0.0D, 0.0D, 0.0D);
+			fx.motionX *= 0.800000011920929D;
+			fx.motionY = fx.rand.nextFloat() * 0.4F + 0.05F;
+			fx.motionZ *= 0.800000011920929D;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 1.0F;
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F * (fx.rand.nextFloat() * 2.0F + 0.2F);
+			fx.lavaParticleScale = fx.particleScale;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (16.0D / (Math.random() * 0.8D + 0.2D));
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+	}
+
+	protected static final class EntitySmokeSplashFX extends EntitySmokeFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntitySmokeSplashFX> POOL = new ParticlePool<>("smoke", 512);
+
+		public EntitySmokeSplashFX(final World world, final double x, final double y, final double z,
+				final double dX, final double dY, final double dZ) {
+			super(world, x, y, z, dX, dY, dZ);
+		}
+
+		public static EntitySmokeSplashFX create(final World world, final double x, final double y, final double z,
+				final double dX, final double dY, final double dZ) {
+			final EntitySmokeSplashFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntitySmokeSplashFX(world, x, y, z, dX, dY, dZ);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			ParticlePool.resetMotion(fx, 0.0D, 0.0D, 0.0D);
+			fx.motionX = fx.motionX * 0.10000000149011612D + dX;
+			fx.motionY = fx.motionY * 0.10000000149011612D + dY;
+			fx.motionZ = fx.motionZ * 0.10000000149011612D + dZ;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = (float) (Math.random() * 0.30000001192092896D);
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F * 0.75F;
+			fx.smokeParticleScale = fx.particleScale;
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (8.0D / (Math.random() * 0.8D + 0.2D));
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+	}
+
+	protected static final class EntityRainSplashFX extends EntityRainFX implements ParticlePool.IPooled {
+
+		private static final ParticlePool<EntityRainSplashFX> POOL = new ParticlePool<>("rain", 1024);
+
+		public EntityRainSplashFX(final World world, final double x, final double y, final double z) {
+			super(world, x, y, z);
+		}
+
+		public static EntityRainSplashFX create(final World world, final double x, final double y, final double z) {
+			final EntityRainSplashFX fx = POOL.acquire();
+			if (fx == null)
+				return new EntityRainSplashFX(world, x, y, z);
+
+			ParticlePool.reset(fx, world, x, y, z);
+			ParticlePool.resetMotion(fx, 0.0D, 0.0D, 0.0D);
+			fx.motionX *= 0.30000001192092896D;
+			fx.motionY = (float) Math.random() * 0.2F + 0.1F;
+			fx.motionZ *= 0.30000001192092896D;
+			fx.particleRed = fx.particleGreen = fx.particleBlue = 1.0F;
+			fx.particleScale = (fx.rand.nextFloat() * 0.5F + 0.5F) * 2.0F;
+			fx.setParticleTextureIndex(19 + fx.rand.nextInt(4));
+			fx.particleAge = 0;
+			fx.particleMaxAge = (int) (8.0D / (Math.random() * 0.8D + 0.2D));
+			return fx;
+		}
+
+		@Override
+		public void recycle() {
+			POOL.release(this);
+		}
+	}
+
+	public static final IParticleFactory lavaSpark = (particleID, world, x, y, z, dX, dY, dZ, misc) -> EntityLavaSplashFX.create(world, x, y, z);
+
+	public static final IParticleFactory smoke = (particleID, world, x, y, z, dX, dY, dZ, misc) -> EntitySmokeSplashFX.create(world, x, y, z, dX, dY, dZ);
+
+	public static final IParticleFactory rain = (particleID, world, x, y, z, dX, dY, dZ, misc) -> EntityRainSplashFX.create(world, x, y, z);
 }
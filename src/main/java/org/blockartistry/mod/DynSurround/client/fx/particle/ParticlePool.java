@@ -0,0 +1,170 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.fx.particle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.blockartistry.mod.DynSurround.ModOptions;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.particle.EntityFX;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+
+/*
+ * Bounded free list of particles of one class. A pooled particle goes
+ * back to its pool when the effect renderer drops it after it dies (see
+ * MixinEffectRenderer), and is reset in place the next time one is asked
+ * for. When the pool is empty, or pooling is off, callers construct a new
+ * particle as before. Pools are cleared when the client world unloads so
+ * they do not hold on to it.
+ */
+@SideOnly(Side.CLIENT)
+public final class ParticlePool<T extends EntityFX> {
+
+	/*
+	 * Implemented by particles that know their pool.
+	 */
+	public interface IPooled {
+		void recycle();
+	}
+
+	private static final List<ParticlePool<?>> pools = new ArrayList<>();
+
+	private final String name;
+	private final Object[] free;
+	private int size;
+
+	private long requests;
+	private long hits;
+	private long dropped;
+
+	public ParticlePool(final String name, final int capacity) {
+		this.name = name;
+		this.free = new Object[capacity];
+		synchronized (pools) {
+			pools.add(this);
+		}
+	}
+
+	/*
+	 * Returns a released particle to reset, or null if the caller has to
+	 * construct one.
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire() {
+		if (!ModOptions.enableParticlePooling)
+			return null;
+		this.requests++;
+		if (this.size == 0)
+			return null;
+		this.hits++;
+		final T fx = (T) this.free[--this.size];
+		this.free[this.size] = null;
+		return fx;
+	}
+
+	public void release(final T fx) {
+		if (this.size < this.free.length)
+			this.free[this.size++] = fx;
+		else
+			this.dropped++;
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.size; i++)
+			this.free[i] = null;
+		this.size = 0;
+	}
+
+	@Override
+	public String toString() {
+		final double ratio = this.requests == 0 ? 0.0D : (double) this.hits * 100.0D / this.requests;
+		return String.format(Locale.ENGLISH, "%s %.0f%% (%d/%d, dropped %d)", this.name, ratio, this.size,
+				this.free.length, this.dropped);
+	}
+
+	public static void recycle(final Object fx) {
+		if (fx instanceof IPooled pooled)
+			pooled.recycle();
+	}
+
+	public static void clearAll() {
+		synchronized (pools) {
+			for (final ParticlePool<?> pool : pools)
+				pool.clear();
+		}
+	}
+
+	public static String getStatistics() {
+		final StringBuilder builder = new StringBuilder("Particle pools:");
+		synchronized (pools) {
+			for (final ParticlePool<?> pool : pools)
+				builder.append(' ').append(pool.toString()).append(';');
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * Puts back the Entity state that a particle's constructor sets up.
+	 * The particle fields are protected and are reset by the particle
+	 * itself.
+	 */
+	static void reset(final EntityFX fx, final World world, final double x, final double y, final double z) {
+		fx.worldObj = world;
+		fx.isDead = false;
+		fx.onGround = false;
+		fx.isCollided = false;
+		fx.isCollidedHorizontally = false;
+		fx.isCollidedVertically = false;
+		fx.fallDistance = 0.0F;
+		fx.ticksExisted = 0;
+		fx.setPosition(x, y, z);
+		fx.prevPosX = fx.lastTickPosX = x;
+		fx.prevPosY = fx.lastTickPosY = y;
+		fx.prevPosZ = fx.lastTickPosZ = z;
+		fx.motionX = 0.0D;
+		fx.motionY = 0.0D;
+		fx.motionZ = 0.0D;
+	}
+
+	/*
+	 * The random motion EntityFX(world, x, y, z, dX, dY, dZ) starts with.
+	 */
+	static void resetMotion(final EntityFX fx, final double dX, final double dY, final double dZ) {
+		fx.motionX = dX + (float) (Math.random() * 2.0D - 1.0D) * 0.4F;
+		fx.motionY = dY + (float) (Math.random() * 2.0D - 1.0D) * 0.4F;
+		fx.motionZ = dZ + (float) (Math.random() * 2.0D - 1.0D) * 0.4F;
+		final float speed = (float) (Math.random() + Math.random() + 1.0D) * 0.15F;
+		final float length = MathHelper
+				.sqrt_double(fx.motionX * fx.motionX + fx.motionY * fx.motionY + fx.motionZ * fx.motionZ);
+		fx.motionX = fx.motionX / length * speed * 0.4000000059604645D;
+		fx.motionY = fx.motionY / length * speed * 0.4000000059604645D + 0.10000000149011612D;
+		fx.motionZ = fx.motionZ / length * speed * 0.4000000059604645D;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.Arrays;
+import java.util.List;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/*
+ * Ambient emitters indexed by SoundEffect.id along with a dense list of the
+ * IDs that are active. Each tick the incoming sounds are stamped with the
+ * current generation; emitters are only created or faded when the set
+ * changes, otherwise the volume is updated in place.
+ */
+@SideOnly(Side.CLIENT)
+final class AmbientEmitters {
+
+	private Emitter[] emitters = new Emitter[32];
+	private int[] emitterGeneration = new int[32];
+	private int[] activeEmitters = new int[32];
+	private int activeCount = 0;
+	private int generation = 0;
+
+	int size() {
+		return this.activeCount;
+	}
+
+	void clear() {
+		for (int i = 0; i < this.activeCount; i++) {
+			final int id = this.activeEmitters[i];
+			this.emitters[id].fade();
+			this.emitters[id] = null;
+		}
+		this.activeCount = 0;
+	}
+
+	void begin() {
+		this.generation++;
+	}
+
+	/*
+	 * Queues an ambient sound for this tick. If the same sound is queued
+	 * more than once in a tick the first one wins.
+	 */
+	void queue(final SoundEffect sound, final float volume) {
+		final int id = sound.id;
+		if (id >= this.emitters.length) {
+			final int size = Math.max(id + 1, this.emitters.length * 2);
+			this.emitters = Arrays.copyOf(this.emitters, size);
+			this.emitterGeneration = Arrays.copyOf(this.emitterGeneration, size);
+			this.activeEmitters = Arrays.copyOf(this.activeEmitters, size);
+		}
+
+		if (this.emitterGeneration[id] == this.generation)
+			return;
+		this.emitterGeneration[id] = this.generation;
+
+		final Emitter emitter = this.emitters[id];
+		if (emitter != null) {
+			emitter.setVolume(volume);
+		} else {
+			this.emitters[id] = new Emitter(sound, volume);
+			this.activeEmitters[this.activeCount++] = id;
+		}
+	}
+
+	/*
+	 * Fades out the emitters that were not queued since the last call to
+	 * begin().
+	 */
+	void end() {
+		for (int i = this.activeCount - 1; i >= 0; i--) {
+			final int id = this.activeEmitters[i];
+			if (this.emitterGeneration[id] != this.generation) {
+				this.emitters[id].fade();
+				this.emitters[id] = null;
+				this.activeEmitters[i] = this.activeEmitters[--this.activeCount];
+			}
+		}
+	}
+
+	void update() {
+		for (int i = 0; i < this.activeCount; i++)
+			this.emitters[this.activeEmitters[i]].update();
+	}
+
+	void collect(final List<String> result) {
+		for (int i = 0; i < this.activeCount; i++) {
+			final Emitter emitter = this.emitters[this.activeEmitters[i]];
+			result.add("EMITTER: " + emitter.effect.toString() + "[vol:" + emitter.getVolume() + "]");
+		}
+	}
+}
@@ -45,11 +45,17 @@ class Emitter {
 
 	protected final SoundEffect effect;
 	protected PlayerSound activeSound;
+	protected float volume;
 
 	protected int repeatDelay = 0;
 
 	public Emitter(final SoundEffect sound) {
+		this(sound, sound.getVolume());
+	}
+
+	public Emitter(final SoundEffect sound, final float volume) {
 		this.effect = sound;
+		this.volume = volume;
 	}
 
 	public void update() {
@@ -60,19 +66,26 @@ class Emitter {
 			return;
 
 		if (this.activeSound == null) {
-			this.activeSound = new PlayerSound(this.effect);
+			this.activeSound = new PlayerSound(this.effect, this.volume);
 		} else if (SoundManager.isSoundPlaying(this.activeSound)) {
 			return;
 		}
 
+		// Without a channel the emitter stays virtual and tries again
+		// next tick
+		if (!VoiceAllocator.allocate(VoiceAllocator.Category.AMBIENT, this.activeSound, this.volume))
+			return;
+
 		try {
 			SoundManager.playSound(this.activeSound);
+			SoundMetrics.play(SoundMetrics.Source.EMITTER);
 		} catch (final Throwable t) {
 			ModLog.error("Unable to play sound", t);
 		}
 	}
 
 	public void setVolume(final float volume) {
+		this.volume = volume;
 		if (this.activeSound != null)
 			this.activeSound.setVolume(volume);
 	}
@@ -35,7 +35,6 @@ import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.MovingSound;
 import net.minecraft.util.AxisAlignedBB;
-import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Vec3;
 
 @SideOnly(Side.CLIENT)
@@ -52,12 +51,15 @@ class PlayerSound extends MovingSound {
 	private long lastTick;
 
 	public PlayerSound(final SoundEffect sound) {
-		super(new ResourceLocation(sound.sound));
+		this(sound, sound.getVolume());
+	}
+
+	public PlayerSound(final SoundEffect sound, final float volume) {
+		super(sound.location);
 
 		// Don't set volume to 0; MC will optimize out
 		this.sound = sound;
-		this.volume = sound.volume;
-		this.maxVolume = sound.getVolume();
+		this.maxVolume = volume;
 		this.volume = DONE_VOLUME_THRESHOLD * 2;
 		this.field_147663_c = sound.getPitch(RANDOM);
 		this.repeat = sound.repeatDelay == 0;
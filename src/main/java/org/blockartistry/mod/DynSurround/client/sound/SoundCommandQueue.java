@@ -0,0 +1,101 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.ModOptions;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/*
+ * The vanilla SoundManager is only safe to use from the client thread. Calls
+ * that arrive from other threads (mods playing sounds from worker threads,
+ * the sound library loader) are placed on a lock-free queue and replayed on
+ * the client thread at the start of the next updateAllSounds(). Calls on
+ * the client thread run directly. The public SoundManager methods are still
+ * synchronized by PatchSoundManagerSync so that the calls that cannot be
+ * queued, such as isSoundPlaying(), are safe from any thread.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundCommandQueue {
+
+	private static final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger deferred = new AtomicInteger();
+	private static volatile Thread owner;
+	private static int drained;
+	private static int maxDepth;
+
+	private SoundCommandQueue() {
+	}
+
+	/*
+	 * Called from the client thread once the sound system is configured.
+	 */
+	public static void setOwner(final Thread thread) {
+		owner = thread;
+	}
+
+	/*
+	 * Queues the command if the caller is not the owning thread. Returns
+	 * true if the command was queued and the caller should not run it.
+	 */
+	public static boolean defer(final Runnable command) {
+		final Thread thread = owner;
+		if (!ModOptions.enableSoundCommandQueue || thread == null || thread == Thread.currentThread())
+			return false;
+		commands.offer(command);
+		deferred.incrementAndGet();
+		return true;
+	}
+
+	/*
+	 * Replays the queued commands. Only called on the owning thread.
+	 */
+	public static void drain() {
+		int count = 0;
+		Runnable command;
+		while ((command = commands.poll()) != null) {
+			try {
+				command.run();
+			} catch (final Throwable t) {
+				ModLog.error("Unable to run queued sound command", t);
+			}
+			count++;
+		}
+		drained += count;
+		if (count > maxDepth)
+			maxDepth = count;
+	}
+
+	public static String getStatistics() {
+		return String.format("Sound Commands: %d deferred, %d replayed, max batch %d", deferred.get(), drained,
+				maxDepth);
+	}
+}
@@ -24,19 +24,35 @@
 package org.blockartistry.mod.DynSurround.client.sound;
 
 import java.util.Random;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
+import org.blockartistry.mod.DynSurround.data.Conditions;
 import org.blockartistry.mod.DynSurround.data.config.SoundConfig;
 
+import gnu.trove.map.hash.TObjectIntHashMap;
 import net.minecraft.block.Block;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
 public final class SoundEffect {
 
 	private static final float[] pitchDelta = { -0.2F, 0.0F, 0.0F, 0.2F, 0.2F, 0.2F };
 
+	// Stable small integer per sound name so effects can index flat tables.
+	// Effects are equal when their sound names are equal, so they share an ID.
+	private static final TObjectIntHashMap<String> soundIds = new TObjectIntHashMap<>(64, 0.5F, -1);
+
+	public static int getSoundId(final String sound) {
+		synchronized (soundIds) {
+			int id = soundIds.get(sound);
+			if (id == -1) {
+				id = soundIds.size();
+				soundIds.put(sound, id);
+			}
+			return id;
+		}
+	}
+
 	public enum SoundType {
 		BACKGROUND, SPOT, STEP, PERIODIC;
 
@@ -54,8 +70,10 @@ public final class SoundEffect {
 	}
 
 	public final String sound;
+	public final ResourceLocation location;
+	public final int id;
 	public final String conditions;
-	private final Pattern pattern;
+	private final Conditions.Filter filter;
 	public final SoundType type;
 	public float volume;
 	public final float pitch;
@@ -79,10 +97,12 @@ public final class SoundEffect {
 	public SoundEffect(final String sound, final float volume, final float pitch, final int repeatDelay,
 			final boolean variable) {
 		this.sound = sound;
+		this.location = new ResourceLocation(sound);
+		this.id = getSoundId(sound);
 		this.volume = volume;
 		this.pitch = pitch;
 		this.conditions = ".*";
-		this.pattern = null;
+		this.filter = Conditions.Filter.ALWAYS;
 		this.weight = 1;
 		this.type = SoundType.SPOT;
 		this.variable = variable;
@@ -92,10 +112,12 @@ public final class SoundEffect {
 
 	public SoundEffect(final SoundEffect effect) {
 		this.sound = effect.sound;
+		this.location = effect.location;
+		this.id = effect.id;
 		this.volume = effect.volume;
 		this.pitch = effect.pitch;
 		this.conditions = effect.conditions;
-		this.pattern = effect.pattern;
+		this.filter = effect.filter;
 		this.weight = effect.weight;
 		this.type = effect.type;
 		this.variable = effect.variable;
@@ -105,10 +127,12 @@ public final class SoundEffect {
 
 	public SoundEffect(final SoundConfig record) {
 		this.sound = StringUtils.isEmpty(record.sound) ? "MISSING SOUND" : record.sound;
+		this.location = new ResourceLocation(this.sound);
+		this.id = getSoundId(this.sound);
 		this.conditions = StringUtils.isEmpty(record.conditions) ? ".*" : record.conditions;
 		this.volume = record.volume == null ? 1.0F : record.volume;
 		this.pitch = record.pitch == null ? 1.0F : record.pitch;
-		this.pattern = Pattern.compile(this.conditions);
+		this.filter = Conditions.Filter.compile(this.conditions);
 		this.weight = record.weight == null ? 10 : record.weight;
 		this.variable = record.variable != null && record.variable;
 		this.repeatDelayRandom = record.repeatDelayRandom == null ? 0 : record.repeatDelayRandom;
@@ -128,8 +152,8 @@ public final class SoundEffect {
 		}
 	}
 
-	public boolean matches(final String conditions) {
-		return this.pattern.matcher(conditions).matches();
+	public boolean matches(final Conditions conditions) {
+		return this.filter.matches(conditions);
 	}
 
 	public float getVolume() {
@@ -148,8 +172,9 @@ public final class SoundEffect {
 		return this.repeatDelay + rand.nextInt(this.repeatDelayRandom);
 	}
 
-	public void doEffect(final Block block, final World world, final BlockPos pos, final Random random) {
-		SoundManager.playSoundAt(pos, this, 0);
+	public void doEffect(final Block block, final World world, final int x, final int y, final int z,
+			final Random random) {
+		SoundManager.playSoundAt(x, y, z, this, 0);
 	}
 
 	@Override
@@ -26,17 +26,18 @@ package org.blockartistry.mod.DynSurround.client.sound;
 
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
 import org.blockartistry.mod.DynSurround.ModLog;
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
 import org.blockartistry.mod.DynSurround.data.SoundRegistry;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL;
@@ -53,100 +54,191 @@ import net.minecraft.client.audio.SoundPoolEntry;
 import net.minecraft.client.settings.GameSettings;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.MathHelper;
+import net.minecraft.util.ResourceLocation;
 import paulscode.sound.SoundSystem;
 import paulscode.sound.SoundSystemConfig;
 
 @SideOnly(Side.CLIENT)
 public class SoundManager {
 
-	private static final int AGE_THRESHOLD_TICKS = 5;
-	private static final int SOUND_QUEUE_SLACK = 6;
-	private static final Map<SoundEffect, Emitter> emitters = new HashMap<>();
-	private static final List<SpotSound> pending = new ArrayList<>();
+	static final int AGE_THRESHOLD_TICKS = 5;
+	private static final SpotSoundWheel pending = new SpotSoundWheel(AGE_THRESHOLD_TICKS);
+
+	// Sounds handed to the sound system that have not been released yet,
+	// tracked by identity so that the playing check does not have to
+	// search the vanilla maps. Maintained by the MixinSoundManager hooks,
+	// which run inside the vanilla SoundManager methods. Those are
+	// synchronized on the vanilla SoundManager by PatchSoundManagerSync, so
+	// the reads here hold the same lock.
+	private static final Set<ISound> submitted = Collections.newSetFromMap(new IdentityHashMap<>());
+	private static final Map<String, ISound> sources = new HashMap<>();
+	// Sounds that were stopped but whose source has not been released. The
+	// vanilla maps still hold them, so they cannot be played again yet.
+	private static final Set<ISound> stopped = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	// Command queue flushing and the counters used to report it
+	private static boolean flushPending;
+	private static int plays;
+	private static int flushes;
+	private static int rateTicks;
+	private static int playsPerSecond;
+	private static int flushesPerSecond;
+
+	private static final AmbientEmitters emitters = new AmbientEmitters();
 
 	private static int normalChannelCount = 0;
 	private static int streamChannelCount = 0;
 
 	public static void clearSounds() {
-		for (final Emitter emit : emitters.values())
-			emit.fade();
 		emitters.clear();
 		pending.clear();
 	}
 
-	public static void queueAmbientSounds(final List<SoundEffect> sounds) {
-		// Need to remove sounds that are active but not
-		// in the incoming list
-		final List<SoundEffect> active = new ArrayList<>(emitters.keySet());
-		for (final SoundEffect effect : active) {
-			if (!sounds.contains(effect))
-				emitters.remove(effect).fade();
-			else {
-				final Emitter emitter = emitters.get(effect);
-				SoundEffect incoming = null;
-				for (final SoundEffect sound : sounds)
-					if (sound.equals(effect)) {
-						incoming = sound;
-						break;
-					}
-				emitter.setVolume(incoming.getVolume());
-				sounds.remove(effect);
-			}
-		}
+	public static void beginAmbientSounds() {
+		emitters.begin();
+	}
 
-		// Add sounds from the incoming list that are not
-		// active.
-		for (final SoundEffect sound : sounds)
-			emitters.put(sound, new Emitter(sound));
+	/*
+	 * Queues an ambient sound for this tick. If the same sound is queued
+	 * more than once in a tick the first one wins.
+	 */
+	public static void queueAmbientSound(final SoundEffect sound, final float volume) {
+		emitters.queue(sound, volume);
+	}
+
+	/*
+	 * Fades out the emitters that were not queued since the last call to
+	 * beginAmbientSounds().
+	 */
+	public static void endAmbientSounds() {
+		emitters.end();
 	}
 
 	public static void update() {
-		for (final Emitter emitter : emitters.values())
-			emitter.update();
-
-		final Iterator<SpotSound> pitr = pending.iterator();
-		while (pitr.hasNext()) {
-			final SpotSound sound = pitr.next();
-			if (sound.getTickAge() >= AGE_THRESHOLD_TICKS) {
-				ModLog.debug("AGING: " + sound);
-				pitr.remove();
-			} else if (sound.getTickAge() >= 0 && canFitSound()) {
-				playSound(sound);
-				pitr.remove();
-			}
-		}
+		VoiceAllocator.update();
+
+		emitters.update();
+
+		pending.advance(EnvironState.getTickCounter());
+	}
+
+	private static net.minecraft.client.audio.SoundManager getVanillaManager() {
+		return Minecraft.getMinecraft().getSoundHandler().sndManager;
 	}
 
 	public static int currentSoundCount() {
-		return Minecraft.getMinecraft().getSoundHandler().sndManager.playingSounds.size();
+		final net.minecraft.client.audio.SoundManager manager = getVanillaManager();
+		synchronized (manager) {
+			return manager.playingSounds.size();
+		}
 	}
 
 	public static int maxSoundCount() {
 		return SoundSystemConfig.getNumberNormalChannels() + SoundSystemConfig.getNumberStreamingChannels();
 	}
 
-	private static boolean canFitSound() {
-		return currentSoundCount() < (SoundSystemConfig.getNumberNormalChannels() - SOUND_QUEUE_SLACK);
-	}
-
 	// Mixin hook for SoundManager::playSound
 	public static void flushSound() {
+		plays++;
+		if (ModOptions.batchSoundFlush)
+			flushPending = true;
+		else
+			flushCommands();
+	}
+
+	private static void flushCommands() {
 		final SoundHandler h = Minecraft.getMinecraft().getSoundHandler();
-		((SoundSystem) h.sndManager.sndSystem).CommandQueue(null);
+		if (h.sndManager.sndSystem != null) {
+			((SoundSystem) h.sndManager.sndSystem).CommandQueue(null);
+			flushes++;
+		}
 	}
 
-	static void playSound(final ISound sound) {
+	/*
+	 * Called once at the end of each client tick. Processes the commands
+	 * for every sound played during the tick in one pass, and rolls the
+	 * per second counters.
+	 */
+	public static void endTick() {
+		if (flushPending) {
+			flushPending = false;
+			flushCommands();
+		}
+
+		if (++rateTicks >= 20) {
+			SoundMetrics.rollSecond();
+			playsPerSecond = plays;
+			flushesPerSecond = flushes;
+			plays = 0;
+			flushes = 0;
+			rateTicks = 0;
+		}
+	}
+
+	public static String getFlushStatistics() {
+		return String.format("Sound Flush: %d plays/s, %d flushes/s (%s)", playsPerSecond, flushesPerSecond,
+				ModOptions.batchSoundFlush ? "batched" : "per play");
+	}
+
+	// Mixin hook for SoundManager::playSound where the source is mapped to
+	// the sound in playingSounds
+	public static void soundSubmitted(final String source, final ISound sound) {
+		submitted.add(sound);
+		sources.put(source, sound);
+	}
+
+	// Mixin hook for SoundManager::stopSound
+	public static void soundStopped(final ISound sound) {
+		if (submitted.remove(sound))
+			stopped.add(sound);
+	}
+
+	// Mixin hook for SoundManager::updateAllSounds when a finished source
+	// is released
+	public static void soundReleased(final String source) {
+		final ISound sound = sources.remove(source);
 		if (sound != null) {
-			if (ModOptions.enableDebugLogging)
-				ModLog.debug("PLAYING: " + sound);
-			final SoundHandler h = Minecraft.getMinecraft().getSoundHandler();
-			h.playSound(sound);
+			submitted.remove(sound);
+			stopped.remove(sound);
+		}
+	}
+
+	// Mixin hook for SoundManager::stopAllSounds
+	public static void soundsCleared() {
+		submitted.clear();
+		sources.clear();
+		stopped.clear();
+	}
+
+	static void playSound(final ISound sound) {
+		// Playing it again before the old source is released would map the
+		// sound twice; the caller tries again later
+		if (sound == null)
+			return;
+		synchronized (getVanillaManager()) {
+			if (stopped.contains(sound))
+				return;
+		}
+		if (ModOptions.enableDebugLogging)
+			ModLog.debug("PLAYING: " + sound);
+		Minecraft.getMinecraft().getSoundHandler().playSound(sound);
+	}
+
+	/*
+	 * Plays the sound if the allocator grants it a channel, otherwise it is
+	 * held as a virtual voice and retried until it ages out.
+	 */
+	private static void playOrDefer(final SpotSound sound) {
+		if (VoiceAllocator.allocate(sound.getCategory(), sound, sound.getVolume())) {
+			playSound(sound);
+			SoundMetrics.play(SoundMetrics.Source.SPOT);
+		} else {
+			pending.add(sound);
 		}
 	}
 
 	public static void playSoundAtPlayer(final SoundEffect sound) {
-		final SpotSound s = new SpotSound(sound);
-		playSound(s);
+		playOrDefer(new SpotSound(sound, VoiceAllocator.Category.UI));
 	}
 
 	public static void playSoundAtPlayer(EntityPlayer player, final SoundEffect sound) {
@@ -154,38 +246,39 @@ public class SoundManager {
 		if (player == null)
 			player = EnvironState.getPlayer();
 
-		final SpotSound s = new SpotSound(player, sound);
-
-		if (!canFitSound())
-			pending.add(s);
-		else
-			playSound(s);
+		playOrDefer(new SpotSound(player, sound, VoiceAllocator.Category.AMBIENT));
 	}
 
-	public static void playSoundAt(final BlockPos pos, final SoundEffect sound, final int tickDelay) {
-		if (tickDelay > 0 && !canFitSound())
+	public static void playSoundAt(final int x, final int y, final int z, final SoundEffect sound,
+			final int tickDelay) {
+		if (tickDelay > 0 && !VoiceAllocator.hasCapacity(VoiceAllocator.Category.BLOCK))
 			return;
 
-		final SpotSound s = new SpotSound(pos, sound, tickDelay);
+		final SpotSound s = new SpotSound(x, y, z, sound, Math.min(tickDelay, pending.getMaxDelay()),
+				VoiceAllocator.Category.BLOCK);
 
-		if (tickDelay > 0 || !canFitSound())
+		if (tickDelay > 0)
 			pending.add(s);
 		else
-			playSound(s);
+			playOrDefer(s);
 	}
 
+	/*
+	 * A sound is considered playing from the time it is submitted until
+	 * it is stopped or the sound system releases its source, or while it
+	 * is waiting in the delayed queue (repeating sounds between plays).
+	 */
 	public static boolean isSoundPlaying(@Nonnull final ISound sound) {
-		final net.minecraft.client.audio.SoundManager manager = Minecraft.getMinecraft().getSoundHandler().sndManager;
-		return manager.isSoundPlaying(sound) || manager.playingSounds.containsValue(sound)
-				|| manager.delayedSounds.containsKey(sound);
+		final net.minecraft.client.audio.SoundManager manager = getVanillaManager();
+		synchronized (manager) {
+			return submitted.contains(sound) || manager.delayedSounds.containsKey(sound);
+		}
 	}
 
 	public static List<String> getSounds() {
 		final List<String> result = new ArrayList<>();
-		for (final SoundEffect effect : emitters.keySet())
-			result.add("EMITTER: " + effect.toString() + "[vol:" + emitters.get(effect).getVolume() + "]");
-		for (final SpotSound effect : pending)
-			result.add((effect.getTickAge() < 0 ? "DELAYED: " : "PENDING: ") + effect.getSoundEffect().toString());
+		emitters.collect(result);
+		pending.collect(result);
 		return result;
 	}
 
@@ -205,16 +298,20 @@ public class SoundManager {
 			return result;
 		}
 
-		final String soundName = sound.getPositionedSoundLocation().toString();
+		final ResourceLocation soundName = sound.getPositionedSoundLocation();
 		if (poolEntry == null) {
 			ModLog.warn("getNormalizedVolume(%s): Null poolEntry parameter", soundName);
 		} else if (category == null) {
 			ModLog.warn("getNormalizedVolume(%s): Null category parameter", soundName);
 		} else {
 			try {
-				final float volumeScale = SoundRegistry.getVolumeScale(soundName);
+				final boolean timed = SoundMetrics.sampleVolume();
+				final long start = timed ? System.nanoTime() : 0;
+				final float volumeScale = SoundRegistry.getDecision(soundName).volumeScale;
 				result = (float) MathHelper.clamp_double(
 						sound.getVolume() * poolEntry.getVolume() * getVolume(category) * volumeScale, 0.0D, 1.0D);
+				if (timed)
+					SoundMetrics.volumeTime(System.nanoTime() - start);
 			} catch (final Throwable t) {
 				ModLog.error("getNormalizedVolume(): Unable to calculate " + soundName, t);
 			}
@@ -230,7 +327,7 @@ public class SoundManager {
 			return result;
 		}
 
-		final String soundName = sound.getPositionedSoundLocation().toString();
+		final ResourceLocation soundName = sound.getPositionedSoundLocation();
 		if (poolEntry == null) {
 			ModLog.warn("getNormalizedPitch(%s): Null poolEntry parameter", soundName);
 		} else {
@@ -0,0 +1,197 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.client.sound.cache.SoundCache;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.Minecraft;
+
+/*
+ * Counters for the sound pipeline. Rates are rolled once a second from the
+ * end of the client tick; everything else is cumulative. The numbers are
+ * reported in the diagnostics and, if configured, appended periodically
+ * to a CSV file in the log directory so channel counts can be tuned from
+ * real data. The play, pending and rate counters are touched from the
+ * client thread only. Blocking, culling and volume normalization run
+ * wherever a sound is played, which can be another thread when the sound
+ * command queue is off, so those counters are thread safe.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundMetrics {
+
+	public enum Source {
+		EMITTER, SPOT, FOOTSTEP, WEATHER
+	}
+
+	private static final Source[] SOURCES = Source.values();
+	private static final String CSV_NAME = "dsurround-sound.csv";
+
+	private static final int[] plays = new int[SOURCES.length];
+	private static final int[] playsPerSecond = new int[SOURCES.length];
+	private static int denied;
+	private static int deniedPerSecond;
+	private static int expired;
+	private static int expiredPerSecond;
+
+	// Ticks a pending spot sound waited past its due time before it played.
+	// Sounds older than the play window are expired instead.
+	private static final long[] pendingAge = new long[SoundManager.AGE_THRESHOLD_TICKS];
+
+	private static final LongAdder blocked = new LongAdder();
+	private static final LongAdder culled = new LongAdder();
+
+	// Only a sample of the volume calls is timed, and only while metrics
+	// are being written; timing every call would mostly measure nanoTime
+	private static final int VOLUME_SAMPLE_MASK = 63;
+	private static final AtomicInteger volumeSample = new AtomicInteger();
+	private static final LongAdder volumeCalls = new LongAdder();
+	private static final LongAdder volumeNanos = new LongAdder();
+
+	private static int seconds;
+
+	private SoundMetrics() {
+	}
+
+	public static void play(final Source source) {
+		plays[source.ordinal()]++;
+	}
+
+	public static void denied() {
+		denied++;
+	}
+
+	public static void expired(final int count) {
+		expired += count;
+	}
+
+	public static void pendingPlayed(final int age) {
+		pendingAge[Math.max(0, Math.min(age, pendingAge.length - 1))]++;
+	}
+
+	public static void blocked() {
+		blocked.increment();
+	}
+
+	public static void culled() {
+		culled.increment();
+	}
+
+	public static boolean sampleVolume() {
+		return ModOptions.soundMetricsInterval > 0
+				&& (volumeSample.incrementAndGet() & VOLUME_SAMPLE_MASK) == 0;
+	}
+
+	public static void volumeTime(final long nanos) {
+		volumeCalls.increment();
+		volumeNanos.add(nanos);
+	}
+
+	private static float averageVolumeNanos() {
+		final long calls = volumeCalls.sum();
+		return calls == 0 ? 0.0F : (float) volumeNanos.sum() / calls;
+	}
+
+	/*
+	 * Rolls the per second rates. Called once a second.
+	 */
+	static void rollSecond() {
+		for (int i = 0; i < plays.length; i++) {
+			playsPerSecond[i] = plays[i];
+			plays[i] = 0;
+		}
+		deniedPerSecond = denied;
+		denied = 0;
+		expiredPerSecond = expired;
+		expired = 0;
+
+		if (ModOptions.soundMetricsInterval > 0 && ++seconds >= ModOptions.soundMetricsInterval) {
+			seconds = 0;
+			dump();
+		}
+	}
+
+	private static void dump() {
+		final File dir = new File(Minecraft.getMinecraft().mcDataDir, "logs");
+		final File file = new File(dir, CSV_NAME);
+		final boolean header = !file.exists();
+		try (final Writer writer = new FileWriter(file, true)) {
+			if (header) {
+				writer.write("time,emitter/s,spot/s,footstep/s,weather/s,denied/s,expired/s,playing,channels,"
+						+ "age0,age1,age2,age3,age4,blocked,culled,cacheHitRatio,volumeNanos\n");
+			}
+			final StringBuilder builder = new StringBuilder();
+			builder.append(System.currentTimeMillis());
+			for (final int rate : playsPerSecond)
+				builder.append(',').append(rate);
+			builder.append(',').append(deniedPerSecond);
+			builder.append(',').append(expiredPerSecond);
+			builder.append(',').append(SoundManager.currentSoundCount());
+			builder.append(',').append(SoundManager.maxSoundCount());
+			for (final long count : pendingAge)
+				builder.append(',').append(count);
+			builder.append(',').append(blocked.sum());
+			builder.append(',').append(culled.sum());
+			builder.append(',').append(String.format(Locale.ENGLISH, "%.3f", SoundCache.getHitRatio()));
+			builder.append(',').append(String.format(Locale.ENGLISH, "%.0f", averageVolumeNanos()));
+			builder.append('\n');
+			writer.write(builder.toString());
+		} catch (final Throwable t) {
+			ModLog.warn("Unable to write sound metrics: %s", t.getMessage());
+		}
+	}
+
+	public static List<String> getStatistics() {
+		final List<String> result = new ArrayList<>();
+		final StringBuilder builder = new StringBuilder();
+		builder.append("Plays/s:");
+		for (final Source s : SOURCES)
+			builder.append(' ').append(s.name().toLowerCase()).append(' ').append(playsPerSecond[s.ordinal()]);
+		builder.append(", denied ").append(deniedPerSecond).append(", expired ").append(expiredPerSecond);
+		result.add(builder.toString());
+
+		builder.setLength(0);
+		builder.append("Pending age:");
+		for (int i = 0; i < pendingAge.length; i++)
+			builder.append(' ').append(pendingAge[i]);
+		result.add(builder.toString());
+
+		result.add(String.format(Locale.ENGLISH, "Blocked %d, culled %d, cache hit %.1f%%, volume %.0fns",
+				blocked.sum(), culled.sum(), SoundCache.getHitRatio() * 100.0F, averageVolumeNanos()));
+		return result;
+	}
+}
@@ -26,7 +26,6 @@ package org.blockartistry.mod.DynSurround.client.sound;
 
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
-import org.blockartistry.mod.DynSurround.compat.BlockPos;
 
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
@@ -34,7 +33,6 @@ import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.PositionedSound;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.MathHelper;
-import net.minecraft.util.ResourceLocation;
 
 @SideOnly(Side.CLIENT)
 public class SpotSound extends PositionedSound {
@@ -42,12 +40,14 @@ public class SpotSound extends PositionedSound {
 	private static final int SPOT_SOUND_RANGE = 6;
 
 	private final SoundEffect sound;
+	private final VoiceAllocator.Category category;
 	private final int timeMark;
 
-	public SpotSound(final SoundEffect sound) {
-		super(new ResourceLocation(sound.sound));
+	public SpotSound(final SoundEffect sound, final VoiceAllocator.Category category) {
+		super(sound.location);
 
 		this.sound = sound;
+		this.category = category;
 		this.volume = sound.volume;
 		this.field_147663_c = sound.getPitch(EnvironState.RANDOM);
 		this.repeat = false;
@@ -63,26 +63,29 @@ public class SpotSound extends PositionedSound {
 		this.timeMark = EnvironState.getTickCounter();
 	}
 
-	public SpotSound(final BlockPos pos, final SoundEffect sound, final int delay) {
-		super(new ResourceLocation(sound.sound));
+	public SpotSound(final int x, final int y, final int z, final SoundEffect sound, final int delay,
+			final VoiceAllocator.Category category) {
+		super(sound.location);
 
 		this.sound = sound;
+		this.category = category;
 		this.volume = sound.volume;
 		this.field_147663_c = sound.getPitch(EnvironState.RANDOM);
 		this.repeat = false;
 		this.field_147665_h = 0;
 
-		this.xPosF = pos.getX() + 0.5F;
-		this.yPosF = pos.getY() + 0.5F;
-		this.zPosF = pos.getZ() + 0.5F;
+		this.xPosF = x + 0.5F;
+		this.yPosF = y + 0.5F;
+		this.zPosF = z + 0.5F;
 
 		this.timeMark = EnvironState.getTickCounter() + delay;
 	}
 
-	public SpotSound(final EntityPlayer player, final SoundEffect sound) {
-		super(new ResourceLocation(sound.sound));
+	public SpotSound(final EntityPlayer player, final SoundEffect sound, final VoiceAllocator.Category category) {
+		super(sound.location);
 
 		this.sound = sound;
+		this.category = category;
 		this.volume = sound.volume;
 		this.field_147663_c = sound.getPitch(EnvironState.RANDOM);
 		this.repeat = false;
@@ -103,6 +106,10 @@ public class SpotSound extends PositionedSound {
 		return super.getVolume() * ModOptions.masterSoundScaleFactor;
 	}
 
+	public int getTimeMark() {
+		return this.timeMark;
+	}
+
 	public int getTickAge() {
 		return EnvironState.getTickCounter() - this.timeMark;
 	}
@@ -111,6 +118,10 @@ public class SpotSound extends PositionedSound {
 		return this.sound;
 	}
 
+	public VoiceAllocator.Category getCategory() {
+		return this.category;
+	}
+
 	@Override
 	public String toString() {
 		return this.sound.toString();
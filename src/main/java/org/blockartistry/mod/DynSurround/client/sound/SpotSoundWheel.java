@@ -0,0 +1,148 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.ModOptions;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/*
+ * Hashed timing wheel for spot sounds waiting to be played. Sounds are
+ * bucketed by the tick they become due, so a tick only looks at the
+ * buckets that are due and still within their play window. A bucket that
+ * falls out of the window is dropped as a whole. The wheel is sized so
+ * that a slot only ever holds sounds for a single tick; delays beyond the
+ * horizon are clamped by the caller.
+ */
+@SideOnly(Side.CLIENT)
+final class SpotSoundWheel {
+
+	private static final int SIZE = 1024;
+	private static final int MASK = SIZE - 1;
+
+	private final int window;
+	private final List<SpotSound>[] slots;
+	private boolean started;
+	private int tick;
+	private int count;
+
+	@SuppressWarnings("unchecked")
+	SpotSoundWheel(final int window) {
+		this.window = window;
+		this.slots = new List[SIZE];
+	}
+
+	/*
+	 * Longest delay that can be scheduled without wrapping around onto a
+	 * bucket that is still in use.
+	 */
+	int getMaxDelay() {
+		return SIZE - this.window - 1;
+	}
+
+	int size() {
+		return this.count;
+	}
+
+	void add(final SpotSound sound) {
+		final int idx = sound.getTimeMark() & MASK;
+		List<SpotSound> slot = this.slots[idx];
+		if (slot == null)
+			slot = this.slots[idx] = new ArrayList<>();
+		slot.add(sound);
+		this.count++;
+	}
+
+	void clear() {
+		for (final List<SpotSound> slot : this.slots)
+			if (slot != null)
+				slot.clear();
+		this.count = 0;
+	}
+
+	private void expire(final int t) {
+		final List<SpotSound> slot = this.slots[(t - this.window) & MASK];
+		if (slot != null && !slot.isEmpty()) {
+			if (ModOptions.enableDebugLogging)
+				ModLog.debug("AGING: %d sounds", slot.size());
+			SoundMetrics.expired(slot.size());
+			this.count -= slot.size();
+			slot.clear();
+		}
+	}
+
+	/*
+	 * Advances the wheel to the current tick, dropping the buckets that
+	 * have aged out, then offers the due sounds to the allocator. Sounds
+	 * that get a channel are played and removed.
+	 */
+	void advance(final int now) {
+		if (!this.started) {
+			this.started = true;
+		} else if (now - this.tick > SIZE) {
+			clear();
+		} else {
+			for (int t = this.tick + 1; t <= now; t++)
+				expire(t);
+		}
+		this.tick = now;
+
+		if (this.count == 0)
+			return;
+
+		for (int t = now - this.window + 1; t <= now; t++) {
+			final List<SpotSound> slot = this.slots[t & MASK];
+			if (slot == null || slot.isEmpty())
+				continue;
+			int idx = 0;
+			for (int i = 0; i < slot.size(); i++) {
+				final SpotSound sound = slot.get(i);
+				if (VoiceAllocator.allocate(sound.getCategory(), sound, sound.getVolume())) {
+					SoundManager.playSound(sound);
+					SoundMetrics.play(SoundMetrics.Source.SPOT);
+					SoundMetrics.pendingPlayed(now - t);
+				} else {
+					slot.set(idx++, sound);
+				}
+			}
+			this.count -= slot.size() - idx;
+			for (int i = slot.size() - 1; i >= idx; i--)
+				slot.remove(i);
+		}
+	}
+
+	void collect(final List<String> result) {
+		for (final List<SpotSound> slot : this.slots)
+			if (slot != null)
+				for (final SpotSound effect : slot)
+					result.add((effect.getTickAge() < 0 ? "DELAYED: " : "PENDING: ")
+							+ effect.getSoundEffect().toString());
+	}
+}
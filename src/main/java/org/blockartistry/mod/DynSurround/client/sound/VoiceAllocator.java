@@ -0,0 +1,195 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.client.sound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.entity.player.EntityPlayer;
+import paulscode.sound.SoundSystemConfig;
+
+/*
+ * Hands out the normal sound channels between the different kinds of
+ * sounds the mod produces. Each category is guaranteed a share of the
+ * channels; a category that is over its share can only borrow channels
+ * that are not reserved for categories of equal or higher priority. Sounds
+ * that are denied a channel are not submitted to the sound system but are
+ * kept as virtual voices by the caller and retried on later ticks.
+ *
+ * Footsteps, weather and most UI sounds are played through vanilla code
+ * paths and are not seen individually. Whatever is playing beyond the
+ * voices tracked here is charged against those categories in priority
+ * order.
+ */
+@SideOnly(Side.CLIENT)
+public final class VoiceAllocator {
+
+	public enum Category {
+		UI(5, 0.05F), FOOTSTEP(5, 0.20F), WEATHER(4, 0.10F), AMBIENT(3, 0.30F), BLOCK(1, 0.25F);
+
+		private final int priority;
+		private final float share;
+
+		private Category(final int priority, final float share) {
+			this.priority = priority;
+			this.share = share;
+		}
+	}
+
+	private static final Category[] CATEGORIES = Category.values();
+	private static final Category[] UNMANAGED = { Category.UI, Category.FOOTSTEP, Category.WEATHER };
+
+	// Sounds quieter than this at the player are not worth a channel
+	private static final float AUDIBLE_THRESHOLD = 0.01F;
+	private static final float ATTENUATION_RANGE = 16.0F;
+
+	private static final class Voice {
+		final ISound sound;
+		final Category category;
+
+		Voice(final ISound sound, final Category category) {
+			this.sound = sound;
+			this.category = category;
+		}
+	}
+
+	private static final List<Voice> voices = new ArrayList<>();
+	private static final int[] active = new int[CATEGORIES.length];
+	private static final int[] used = new int[CATEGORIES.length];
+	private static int denied;
+
+	private VoiceAllocator() {
+	}
+
+	/*
+	 * Drops the voices that are no longer playing. Called once per tick
+	 * before any new sounds are requested.
+	 */
+	public static void update() {
+		int idx = 0;
+		for (int i = 0; i < voices.size(); i++) {
+			final Voice voice = voices.get(i);
+			if (SoundManager.isSoundPlaying(voice.sound))
+				voices.set(idx++, voice);
+			else
+				active[voice.category.ordinal()]--;
+		}
+		for (int i = voices.size() - 1; i >= idx; i--)
+			voices.remove(i);
+	}
+
+	public static void clear() {
+		voices.clear();
+		for (int i = 0; i < active.length; i++)
+			active[i] = 0;
+	}
+
+	private static int quota(final Category category) {
+		return Math.max(1, (int) (SoundSystemConfig.getNumberNormalChannels() * category.share));
+	}
+
+	/*
+	 * Importance of a sound at the player's position: its volume scaled
+	 * down linearly with distance the same way the sound system attenuates
+	 * it. Sounds attached to the player are not attenuated.
+	 */
+	public static float getImportance(final ISound sound, final float volume) {
+		if (sound.getAttenuationType() == ISound.AttenuationType.NONE)
+			return volume;
+		final EntityPlayer player = EnvironState.getPlayer();
+		if (player == null)
+			return volume;
+		final double dx = sound.getXPosF() - player.posX;
+		final double dy = sound.getYPosF() - player.posY;
+		final double dz = sound.getZPosF() - player.posZ;
+		final double range = ATTENUATION_RANGE * Math.max(1.0F, volume);
+		final double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		return dist >= range ? 0.0F : (float) (volume * (1.0D - dist / range));
+	}
+
+	private static void computeUsage(final int playing) {
+		System.arraycopy(active, 0, used, 0, active.length);
+		int unmanaged = Math.max(0, playing - voices.size());
+		for (int i = 0; i < UNMANAGED.length && unmanaged > 0; i++) {
+			final Category category = UNMANAGED[i];
+			final int slots = i == UNMANAGED.length - 1 ? unmanaged
+					: Math.min(unmanaged, Math.max(0, quota(category) - used[category.ordinal()]));
+			used[category.ordinal()] += slots;
+			unmanaged -= slots;
+		}
+	}
+
+	/*
+	 * Whether a sound of the category could be given a channel right now,
+	 * regardless of how important it is.
+	 */
+	public static boolean hasCapacity(final Category category) {
+		final int playing = SoundManager.currentSoundCount();
+		final int free = SoundSystemConfig.getNumberNormalChannels() - playing;
+		if (free <= 0)
+			return false;
+
+		computeUsage(playing);
+		if (used[category.ordinal()] < quota(category))
+			return true;
+
+		int reserved = 0;
+		for (final Category c : CATEGORIES)
+			if (c != category && c.priority >= category.priority)
+				reserved += Math.max(0, quota(c) - used[c.ordinal()]);
+		return free > reserved;
+	}
+
+	/*
+	 * Attempts to give the sound a channel. On success the voice is tracked
+	 * until it stops playing and the caller is expected to submit it. The
+	 * volume is passed separately because emitters fade in from silence.
+	 */
+	public static boolean allocate(final Category category, final ISound sound, final float volume) {
+		if (getImportance(sound, volume) < AUDIBLE_THRESHOLD || !hasCapacity(category)) {
+			denied++;
+			SoundMetrics.denied();
+			return false;
+		}
+		voices.add(new Voice(sound, category));
+		active[category.ordinal()]++;
+		return true;
+	}
+
+	public static String getStatistics() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("Voices:");
+		for (final Category c : CATEGORIES)
+			builder.append(' ').append(c.name()).append(' ').append(active[c.ordinal()]).append('/')
+					.append(quota(c));
+		builder.append(", denied ").append(denied);
+		return builder.toString();
+	}
+}
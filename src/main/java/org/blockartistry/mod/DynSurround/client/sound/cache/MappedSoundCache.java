@@ -0,0 +1,223 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.DynSurround.client.sound.cache;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.io.FileUtils;
+import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.Module;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import cpw.mods.fml.common.Loader;
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.ResourcePackRepository;
+import net.minecraft.util.ResourceLocation;
+
+/*
+ * On disk copy of the sounds too large to hold in memory. Such a sound is
+ * extracted from its jar or resource pack into the cache folder by the
+ * warm-up threads, either ahead of time or after its first play, and from
+ * then on it is read through a memory mapped buffer rather than being
+ * inflated again on every play.
+ *
+ * Files are grouped in a folder named for the hash of the loaded mods
+ * and resource packs, including the size and modification time of their
+ * files, so a change to either starts a fresh set. Files are named for
+ * the hash of the resource path. Folders for other sets are only removed
+ * the first time the folder is chosen, before anything has been mapped,
+ * since a mapped file cannot be deleted on some platforms.
+ */
+@SideOnly(Side.CLIENT)
+public final class MappedSoundCache {
+
+	private static final String CACHE_FOLDER = "soundcache";
+	private static final HashFunction HASH = Hashing.sha1();
+
+	private static final ConcurrentHashMap<ResourceLocation, ByteBuffer> mapped = new ConcurrentHashMap<>();
+	// Sounds handed to the warm-up threads after a play missed the cache.
+	// Not retried if mapping fails.
+	private static final Set<ResourceLocation> requested = ConcurrentHashMap.newKeySet();
+	private static volatile File folder;
+	private static boolean pruned;
+
+	private MappedSoundCache() {
+
+	}
+
+	/*
+	 * Appends the size and modification time of the file, or of every file
+	 * under it for a folder, so that content updated in place under the same
+	 * name produces a different key.
+	 */
+	private static void appendStamp(final StringBuilder builder, final File file) {
+		if (file == null || !file.exists())
+			return;
+		if (file.isDirectory()) {
+			for (final File f : FileUtils.listFiles(file, null, true))
+				builder.append(f.getPath()).append(':').append(f.length()).append(':').append(f.lastModified())
+						.append(';');
+		} else {
+			builder.append(file.length()).append(':').append(file.lastModified()).append(';');
+		}
+	}
+
+	private static String getPackKey() {
+		final StringBuilder builder = new StringBuilder();
+		for (final ModContainer mod : Loader.instance().getActiveModList()) {
+			builder.append(mod.getModId()).append('@').append(mod.getVersion()).append(';');
+			appendStamp(builder, mod.getSource());
+		}
+		final ResourcePackRepository repository = Minecraft.getMinecraft().getResourcePackRepository();
+		for (final ResourcePackRepository.Entry pack : repository.getRepositoryEntries()) {
+			builder.append(pack.getResourcePackName()).append(';');
+			appendStamp(builder, new File(repository.getDirResourcepacks(), pack.getResourcePackName()));
+		}
+		return HASH.hashString(builder, StandardCharsets.UTF_8).toString();
+	}
+
+	private static synchronized File getFolder() {
+		if (folder == null) {
+			final File root = new File(Module.dataDirectory(), CACHE_FOLDER);
+			final File current = new File(root, getPackKey());
+			current.mkdirs();
+
+			// Sets for other pack combinations are stale. Only done before
+			// the first file is mapped; sets left over from a pack change
+			// during this session are removed on the next start.
+			if (!pruned) {
+				pruned = true;
+				final File[] others = root.listFiles();
+				if (others != null)
+					for (final File other : others)
+						if (!other.equals(current))
+							FileUtils.deleteQuietly(other);
+			}
+
+			folder = current;
+		}
+		return folder;
+	}
+
+	private static File extract(@Nonnull final ResourceLocation resource, @Nonnull final File target)
+			throws Exception {
+		final Path dir = target.getParentFile().toPath();
+		final Path temp = Files.createTempFile(dir, "sound", ".tmp");
+		try (final InputStream stream = Minecraft.getMinecraft().getResourceManager()
+				.getResource(SoundCache.actualResource(resource)).getInputStream()) {
+			Files.copy(stream, temp, StandardCopyOption.REPLACE_EXISTING);
+			try {
+				Files.move(temp, target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (final Exception ex) {
+				Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return target;
+	}
+
+	/*
+	 * Returns a read only mapped buffer over the sound, extracting it if
+	 * needed. Callers should duplicate() the buffer before reading. Returns
+	 * null if the disk cache is disabled or the sound could not be cached,
+	 * in which case it should be streamed from the resource. Does the disk
+	 * work on the calling thread, so only the warm-up threads call it.
+	 */
+	public static ByteBuffer map(@Nonnull final ResourceLocation resource) {
+		if (!ModOptions.enableSoundDiskCache)
+			return null;
+
+		ByteBuffer buffer = mapped.get(resource);
+		if (buffer != null)
+			return buffer;
+
+		try {
+			final String name = HASH.hashString(SoundCache.actualResource(resource).toString(), StandardCharsets.UTF_8)
+					.toString() + ".ogg";
+			File file = new File(getFolder(), name);
+			if (!file.exists())
+				file = extract(resource, file);
+
+			try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+
+			final ByteBuffer existing = mapped.putIfAbsent(resource, buffer);
+			return existing != null ? existing : buffer;
+		} catch (final Throwable t) {
+			ModLog.warn("Unable to cache sound [%s] on disk: %s", resource.toString(), t.getMessage());
+			return null;
+		}
+	}
+
+	/*
+	 * Returns the mapped buffer if the sound is already in the disk cache.
+	 * Otherwise returns null so the caller streams from the resource, and
+	 * has the warm-up threads extract it for the next play. Called on the
+	 * sound library's streaming thread, which must not wait on extracting
+	 * the sound or on hashing the pack list to find the cache folder.
+	 */
+	public static ByteBuffer get(@Nonnull final ResourceLocation resource) {
+		if (!ModOptions.enableSoundDiskCache)
+			return null;
+
+		final ByteBuffer buffer = mapped.get(resource);
+		if (buffer == null && requested.add(resource))
+			SoundWarmup.execute(() -> map(resource));
+		return buffer;
+	}
+
+	/*
+	 * Forgets the mapped sounds. The folder is reevaluated since the
+	 * resource packs may have changed.
+	 */
+	public static void clear() {
+		mapped.clear();
+		requested.clear();
+		synchronized (MappedSoundCache.class) {
+			folder = null;
+		}
+	}
+
+}
@@ -32,19 +32,21 @@ import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.util.ResourceLocation;
 
+/*
+ * Handler for sounds small enough to be held by the SoundCache. The bytes
+ * are fetched from the cache on each open, and reloaded if they have been
+ * evicted in the meantime.
+ */
 @SideOnly(Side.CLIENT)
 public class MemoryStreamHandler extends SoundStreamHandler {
 
-	protected final byte[] buffer;
-
-	public MemoryStreamHandler(@Nonnull final ResourceLocation resource, @Nonnull final byte[] buffer) {
+	public MemoryStreamHandler(@Nonnull final ResourceLocation resource) {
 		super(resource);
-		this.buffer = buffer;
 	}
 
 	@Override
 	protected URLConnection createConnection(@Nonnull final URL url) {
-		return new MemoryURLConnection(url, this.buffer);
+		return new MemoryURLConnection(url, this.resource);
 	}
 
 }
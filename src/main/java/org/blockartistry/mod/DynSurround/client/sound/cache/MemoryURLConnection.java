@@ -23,7 +23,6 @@
 
 package org.blockartistry.mod.DynSurround.client.sound.cache;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -33,16 +32,17 @@ import javax.annotation.Nonnull;
 
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.util.ResourceLocation;
 
 @SideOnly(Side.CLIENT)
 public class MemoryURLConnection extends URLConnection {
 
-	protected final byte[] buffer;
+	protected final ResourceLocation resource;
 
-	protected MemoryURLConnection(@Nonnull final URL url, @Nonnull final byte[] buffer) {
+	protected MemoryURLConnection(@Nonnull final URL url, @Nonnull final ResourceLocation resource) {
 		super(url);
 
-		this.buffer = buffer;
+		this.resource = resource;
 	}
 
 	@Override
@@ -51,7 +51,7 @@ public class MemoryURLConnection extends URLConnection {
 
 	@Override
 	public InputStream getInputStream() throws IOException {
-		return new ByteArrayInputStream(this.buffer);
+		return SoundCache.getStream(this.resource);
 	}
 
 }
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
 
 import javax.annotation.Nonnull;
 
@@ -52,6 +53,10 @@ public class ResourceURLConnection extends URLConnection {
 
 	@Override
 	public InputStream getInputStream() throws IOException {
+		final ByteBuffer mapped = MappedSoundCache.get(this.resource);
+		if (mapped != null)
+			return new SoundInputStream(new ByteBufferInputStream(mapped.duplicate()));
+
 		final InputStream stream = Minecraft.getMinecraft().getResourceManager()
 				.getResource(SoundCache.actualResource(this.resource)).getInputStream();
 		return new SoundInputStream(stream);
@@ -21,17 +21,22 @@
  * THE SOFTWARE.
  */
 
+
 package org.blockartistry.mod.DynSurround.client.sound.cache;
 
 import java.io.InputStream;
 import java.net.URL;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 
 import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.ModOptions;
 
 import com.google.common.io.ByteStreams;
 
@@ -44,12 +49,26 @@ import net.minecraft.util.ResourceLocation;
 @SideOnly(Side.CLIENT)
 public final class SoundCache {
 
-	private static final int BUFFER_SIZE = 64 * 1024;
-	private static final byte[] BUFFER = new byte[BUFFER_SIZE];
+	private static final int BUFFER_SIZE = ModOptions.soundCacheThreshold * 1024;
+	// Sounds are loaded by the client, sound library and warm-up threads
+	// so each gets its own read buffer.
+	private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
 	private static final IResourceManager manager = Minecraft.getMinecraft().getResourceManager();
-	private static final Map<ResourceLocation, URL> cache = new HashMap<>(256);
+	private static final Map<ResourceLocation, URL> cache = new ConcurrentHashMap<>(256);
+
+	// Sounds small enough to be held in memory
+	private static final Set<ResourceLocation> resident = ConcurrentHashMap.newKeySet();
 
-	private static final byte[] SILENCE = getBuffer(new ResourceLocation("dsurround:sounds/ambient/silence.ogg"));
+	// Bytes of the sounds small enough to be held in memory, kept off heap
+	// in least recently used order and trimmed to the configured budget.
+	// Read by the sound library thread, hence the locking.
+	private static final LinkedHashMap<ResourceLocation, ByteBuffer> data = new LinkedHashMap<>(256, 0.75F, true);
+	private static long dataBytes = 0;
+	private static long hits = 0;
+	private static long misses = 0;
+	private static long evictions = 0;
+
+	private static final ByteBuffer SILENCE = getBuffer(new ResourceLocation("dsurround:sounds/ambient/silence.ogg"));
 
 	// Some mods (e.g. GregTech's seeking jukebox) append a query suffix to the
 	// resource path so a custom codec can be selected and parameters passed via
@@ -64,26 +83,30 @@ public final class SoundCache {
 		return new ResourceLocation(resource.getResourceDomain(), path.substring(0, idx));
 	}
 
-	private static byte[] getBuffer(@Nonnull final ResourceLocation resource) {
+	private static ByteBuffer getBuffer(@Nonnull final ResourceLocation resource) {
 		InputStream stream = null;
 
 		try {
 			stream = manager.getResource(actualResource(resource)).getInputStream();
 			// It's possible that available() returns 0. This generally means
 			// the stream has no idea about the number of bytes. If it reports
-			// 64K or greater assume it needs to be streamed from the JAR.
+			// the threshold or greater assume it needs to be streamed from the JAR.
 			if (stream == null) {
 				ModLog.warn("No stream returned for [%s]", resource.toString());
 				return SILENCE;
 			} else if (stream.available() < BUFFER_SIZE) {
-				final int bytesRead = ByteStreams.read(stream, BUFFER, 0, BUFFER_SIZE);
-				// If no bytes were returned, or the total read was 64K, assume
-				// that it needs to be streamed.
+				final byte[] bytes = BUFFER.get();
+				final int bytesRead = ByteStreams.read(stream, bytes, 0, BUFFER_SIZE);
+				// If no bytes were returned, or the total read was the
+				// threshold, assume that it needs to be streamed.
 				if (bytesRead == 0 || bytesRead == BUFFER_SIZE)
 					return null;
-				// Make a new array containing the data. Don't want to
+				// Copy out to a buffer of our own. Don't want to
 				// pass back BUFFER.
-				return Arrays.copyOf(BUFFER, bytesRead);
+				final ByteBuffer buffer = ByteBuffer.allocateDirect(bytesRead);
+				buffer.put(bytes, 0, bytesRead);
+				buffer.flip();
+				return buffer;
 			}
 		} catch (@Nonnull final Throwable t) {
 			ModLog.warn("Error reading stream [%s]", resource.toString());
@@ -99,15 +122,67 @@ public final class SoundCache {
 		return null;
 	}
 
+	private static void put(@Nonnull final ResourceLocation resource, @Nonnull final ByteBuffer buffer) {
+		final long budget = ModOptions.soundCacheSize * 1024L;
+		if (buffer.capacity() > budget)
+			return;
+
+		synchronized (data) {
+			final ByteBuffer old = data.put(resource, buffer);
+			if (old != null)
+				dataBytes -= old.capacity();
+			dataBytes += buffer.capacity();
+
+			final Iterator<ByteBuffer> itr = data.values().iterator();
+			while (dataBytes > budget && itr.hasNext()) {
+				final ByteBuffer victim = itr.next();
+				if (victim == buffer)
+					continue;
+				dataBytes -= victim.capacity();
+				itr.remove();
+				evictions++;
+			}
+		}
+	}
+
+	/*
+	 * Opens a stream on a sound held in memory. If the bytes were evicted
+	 * they are read again from the resource.
+	 */
+	static InputStream getStream(@Nonnull final ResourceLocation resource) throws Exception {
+		ByteBuffer buffer;
+		synchronized (data) {
+			buffer = data.get(resource);
+			if (buffer != null)
+				hits++;
+			else
+				misses++;
+		}
+
+		if (buffer == null) {
+			buffer = getBuffer(resource);
+			if (buffer == null) {
+				// Resource changed underneath us and is now too big
+				final InputStream stream = manager.getResource(actualResource(resource)).getInputStream();
+				return new SoundInputStream(stream);
+			}
+			put(resource, buffer);
+		}
+
+		return new ByteBufferInputStream(buffer.duplicate());
+	}
+
 	private static URL load(@Nonnull final ResourceLocation key) throws Exception {
 
-		final byte[] buffer = getBuffer(key);
+		final ByteBuffer buffer = getBuffer(key);
 		final SoundStreamHandler handler;
 
 		if (buffer == null) {
 			handler = new SoundStreamHandler(key);
 		} else {
-			handler = new MemoryStreamHandler(key, buffer);
+			put(key, buffer);
+			resident.add(key);
+			handler = new MemoryStreamHandler(key);
 		}
 
 		return new URL(null, handler.getSpec(), handler);
@@ -117,15 +192,61 @@ public final class SoundCache {
 
 	}
 
-	public static URL getURLForSoundResource(@Nonnull final ResourceLocation soundResource) {
+	private static URL getURL(@Nonnull final ResourceLocation soundResource) {
 		URL result = cache.get(soundResource);
-		if (result == null)
+		if (result == null) {
 			try {
-				cache.put(soundResource, result = load(soundResource));
+				result = load(soundResource);
 			} catch (@Nonnull final Throwable t) {
 				throw new Error("Unable to load sound from cache!");
 			}
+			final URL existing = cache.putIfAbsent(soundResource, result);
+			if (existing != null)
+				result = existing;
+		}
 		return result;
 	}
 
+	public static URL getURLForSoundResource(@Nonnull final ResourceLocation soundResource) {
+		return getURL(soundResource);
+	}
+
+	/*
+	 * Loads the sound ahead of its first play. Sounds too large to be held
+	 * in memory are extracted to the disk cache.
+	 */
+	public static void warm(@Nonnull final ResourceLocation soundResource) {
+		getURL(soundResource);
+		if (!resident.contains(soundResource))
+			MappedSoundCache.map(soundResource);
+	}
+
+	/*
+	 * Drops everything loaded so far. Called when the resource packs
+	 * change since any sound may now resolve to different data.
+	 */
+	public static void clear() {
+		cache.clear();
+		synchronized (data) {
+			data.clear();
+			dataBytes = 0;
+		}
+		resident.clear();
+		MappedSoundCache.clear();
+	}
+
+	public static float getHitRatio() {
+		synchronized (data) {
+			final long total = hits + misses;
+			return total == 0 ? 0.0F : (float) hits / total;
+		}
+	}
+
+	public static String getStatistics() {
+		synchronized (data) {
+			return String.format("SoundCache: %d sounds, %dK/%dK, hits %d, misses %d, evictions %d", data.size(),
+					dataBytes / 1024, ModOptions.soundCacheSize, hits, misses, evictions);
+		}
+	}
+
 }
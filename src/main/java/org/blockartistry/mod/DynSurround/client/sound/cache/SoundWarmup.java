@@ -0,0 +1,177 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.DynSurround.client.sound.cache;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.mod.DynSurround.ModLog;
+import org.blockartistry.mod.DynSurround.client.footsteps.Footsteps;
+import org.blockartistry.mod.DynSurround.client.weather.Weather;
+import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
+import org.blockartistry.mod.DynSurround.data.BlockRegistry;
+
+import cpw.mods.fml.relauncher.ReflectionHelper;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.audio.ISoundEventAccessor;
+import net.minecraft.client.audio.SoundEventAccessorComposite;
+import net.minecraft.client.audio.SoundHandler;
+import net.minecraft.client.audio.SoundPoolEntry;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.client.resources.IResourceManagerReloadListener;
+import net.minecraft.util.ResourceLocation;
+
+/*
+ * Loads the sounds referenced by the biome, block, acoustic and weather
+ * configs ahead of their first play so they don't stutter the first time
+ * they fire. Runs when the resource packs are (re)loaded, with the loads
+ * spread over a small thread pool.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundWarmup implements IResourceManagerReloadListener {
+
+	private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+	private static final ExecutorService loader = Executors.newFixedThreadPool(THREADS, r -> {
+		final Thread thread = new Thread(r, "DSurround Sound Warmup");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static Field soundPool;
+	private static boolean soundPoolMissing;
+
+	public static void register() {
+		final IResourceManager manager = Minecraft.getMinecraft().getResourceManager();
+		if (manager instanceof IReloadableResourceManager)
+			((IReloadableResourceManager) manager).registerReloadListener(new SoundWarmup());
+	}
+
+	/*
+	 * Runs the task on the warm-up threads.
+	 */
+	static void execute(@Nonnull final Runnable task) {
+		loader.execute(task);
+	}
+
+	@Override
+	public void onResourceManagerReload(@Nonnull final IResourceManager manager) {
+		SoundCache.clear();
+
+		final Set<String> names = new HashSet<>();
+		BiomeRegistry.collectSounds(names);
+		BlockRegistry.collectSounds(names);
+		Weather.collectSounds(names);
+		if (Footsteps.INSTANCE != null)
+			Footsteps.INSTANCE.collectSounds(names);
+
+		warmUp("resource reload", names);
+	}
+
+	/*
+	 * Resolves the sound names to their sound files and loads them in the
+	 * background. Must be called from the client thread.
+	 */
+	public static void warmUp(@Nonnull final String reason, @Nonnull final Collection<String> soundNames) {
+		final SoundHandler handler = Minecraft.getMinecraft().getSoundHandler();
+		final Set<ResourceLocation> resources = new HashSet<>();
+		for (final String name : soundNames) {
+			final SoundEventAccessorComposite accessor = handler.getSound(new ResourceLocation(name));
+			if (accessor != null)
+				collect(accessor, resources);
+		}
+
+		if (resources.isEmpty())
+			return;
+
+		final int total = resources.size();
+		final int step = Math.max(1, total / 4);
+		final AtomicInteger completed = new AtomicInteger();
+		final long start = System.nanoTime();
+		ModLog.info("Sound warm-up (%s): loading %d sounds on %d threads", reason, total, THREADS);
+
+		for (final ResourceLocation resource : resources) {
+			loader.execute(() -> {
+				try {
+					SoundCache.warm(resource);
+				} catch (final Throwable t) {
+					ModLog.warn("Unable to warm up sound [%s]", resource.toString());
+				}
+
+				final int done = completed.incrementAndGet();
+				if (done == total)
+					ModLog.info("Sound warm-up (%s): %d sounds in %d ms", reason, total,
+							(System.nanoTime() - start) / 1000000L);
+				else if (done % step == 0)
+					ModLog.info("Sound warm-up (%s): %d/%d", reason, done, total);
+			});
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void collect(@Nonnull final SoundEventAccessorComposite accessor,
+			@Nonnull final Set<ResourceLocation> resources) {
+		final List<ISoundEventAccessor> pool = getSoundPool(accessor);
+		if (pool == null)
+			return;
+
+		for (final ISoundEventAccessor entry : pool) {
+			if (entry instanceof SoundEventAccessorComposite) {
+				collect((SoundEventAccessorComposite) entry, resources);
+			} else {
+				final Object sound = entry.func_148720_g();
+				if (sound instanceof SoundPoolEntry)
+					resources.add(((SoundPoolEntry) sound).getSoundPoolEntryLocation());
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<ISoundEventAccessor> getSoundPool(@Nonnull final SoundEventAccessorComposite accessor) {
+		if (soundPoolMissing)
+			return null;
+		try {
+			if (soundPool == null)
+				soundPool = ReflectionHelper.findField(SoundEventAccessorComposite.class, "soundPool",
+						"field_148736_a");
+			return (List<ISoundEventAccessor>) soundPool.get(accessor);
+		} catch (final Throwable t) {
+			ModLog.warn("Unable to inspect sound events; sound warm-up disabled");
+			soundPoolMissing = true;
+			return null;
+		}
+	}
+
+}
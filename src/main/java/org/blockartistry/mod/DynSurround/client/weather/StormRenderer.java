@@ -25,9 +25,9 @@
 package org.blockartistry.mod.DynSurround.client.weather;
 
 import org.blockartistry.mod.DynSurround.Module;
+import org.blockartistry.mod.DynSurround.client.BiomeCache;
 import org.blockartistry.mod.DynSurround.client.IAtmosRenderer;
 import org.blockartistry.mod.DynSurround.client.WeatherUtils;
-import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
 import org.blockartistry.mod.DynSurround.data.DimensionRegistry;
 import org.blockartistry.mod.DynSurround.util.Color;
 import org.blockartistry.mod.DynSurround.util.random.XorShiftRandom;
@@ -133,10 +133,10 @@ public class StormRenderer implements IAtmosRenderer {
 				final int idx = (locZ - playerZ + 16) * 32 + locX - playerX + 16;
 				final float f6 = RAIN_X_COORDS[idx] * 0.5F;
 				final float f7 = RAIN_Y_COORDS[idx] * 0.5F;
-				final BiomeGenBase biome = world.getBiomeGenForCoords(locX, locZ);
-				final boolean hasDust = WeatherUtils.biomeHasDust(biome);
+				final BiomeGenBase biome = BiomeCache.getBiome(locX, locZ);
+				final boolean hasDust = WeatherUtils.biomeHasDust(locX, locZ);
 
-				if (hasDust || BiomeRegistry.hasPrecipitation(biome)) {
+				if (hasDust || BiomeCache.hasPrecipitation(locX, locZ)) {
 					final int k1 = getPrecipitationHeight(world, locX, locZ);
 					int l1 = playerY - b0;
 					int i2 = playerY + b0;
@@ -224,7 +224,7 @@ public class StormRenderer implements IAtmosRenderer {
 
 							final Color color = new Color(1.0F, 1.0F, 1.0F);
 							if (world.provider.dimensionId == -1) {
-								final Color c = BiomeRegistry.getDustColor(biome);
+								final Color c = BiomeCache.getDustColor(locX, locZ);
 								if (c != null)
 									color.mix(c);
 							}
@@ -26,11 +26,12 @@ package org.blockartistry.mod.DynSurround.client.weather;
 
 import org.apache.commons.lang3.StringUtils;
 import org.blockartistry.mod.DynSurround.ModOptions;
+import org.blockartistry.mod.DynSurround.client.BiomeCache;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
 import org.blockartistry.mod.DynSurround.client.WeatherUtils;
 import org.blockartistry.mod.DynSurround.client.fx.particle.ParticleFactory;
+import org.blockartistry.mod.DynSurround.client.sound.SoundMetrics;
 import org.blockartistry.mod.DynSurround.compat.IParticleFactory;
-import org.blockartistry.mod.DynSurround.data.BiomeRegistry;
 import org.blockartistry.mod.DynSurround.data.DimensionRegistry;
 import org.blockartistry.mod.DynSurround.util.DiurnalUtils;
 import org.blockartistry.mod.DynSurround.util.random.XorShiftRandom;
@@ -47,7 +48,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
-import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.gen.NoiseGeneratorSimplex;
 
 @SideOnly(Side.CLIENT)
@@ -120,7 +120,7 @@ public class StormSplashRenderer {
 		final int theY = MathHelper.floor_double(y);
 		final int theZ = MathHelper.floor_double(z);
 
-		final boolean hasDust = WeatherUtils.biomeHasDust(world.getBiomeGenForCoords(theX, theZ));
+		final boolean hasDust = WeatherUtils.biomeHasDust(theX, theZ);
 		final Block block = world.getBlock(theX, theY - 1, theZ);
 		final String sound = getBlockSoundFX(block, hasDust, world);
 		if (!StringUtils.isEmpty(sound)) {
@@ -132,6 +132,7 @@ public class StormSplashRenderer {
 			if (y > player.posY + 1.0D && world.getPrecipitationHeight(playerX, playerZ) > playerY)
 				pitch = 0.5F;
 			renderer.mc.theWorld.playSound(x, y, z, sound, volume, pitch, false);
+			SoundMetrics.play(SoundMetrics.Source.WEATHER);
 		}
 	}
 
@@ -169,11 +170,10 @@ public class StormSplashRenderer {
 			final int locX = playerX + RANDOM.nextInt(RANGE) - RANDOM.nextInt(RANGE);
 			final int locZ = playerZ + RANDOM.nextInt(RANGE) - RANDOM.nextInt(RANGE);
 			final int locY = getPrecipitationHeight(worldclient, RANGE / 2, locX, locZ);
-			final BiomeGenBase biome = worldclient.getBiomeGenForCoords(locX, locZ);
-			final boolean hasDust = WeatherUtils.biomeHasDust(biome);
+			final boolean hasDust = WeatherUtils.biomeHasDust(locX, locZ);
 
-			if (locY <= playerY + RANGE && locY >= playerY - RANGE && (hasDust || (BiomeRegistry.hasPrecipitation(biome)
-					&& biome.getFloatTemperature(locX, locY, locZ) >= 0.15F))) {
+			if (locY <= playerY + RANGE && locY >= playerY - RANGE && (hasDust || (BiomeCache.hasPrecipitation(locX, locZ)
+					&& BiomeCache.getBiome(locX, locZ).getFloatTemperature(locX, locY, locZ) >= 0.15F))) {
 
 				final Block block = worldclient.getBlock(locX, locY - 1, locZ);
 				final double posX = locX + RANDOM.nextFloat();
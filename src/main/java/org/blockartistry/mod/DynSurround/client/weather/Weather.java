@@ -24,6 +24,8 @@
 
 package org.blockartistry.mod.DynSurround.client.weather;
 
+import java.util.Collection;
+
 import org.blockartistry.mod.DynSurround.ModOptions;
 import org.blockartistry.mod.DynSurround.Module;
 import org.blockartistry.mod.DynSurround.client.EnvironStateHandler.EnvironState;
@@ -110,6 +112,13 @@ public enum Weather {
 		return this.dustSound;
 	}
 
+	public static void collectSounds(final Collection<String> sounds) {
+		for (final Weather w : values()) {
+			sounds.add(w.getStormSound());
+			sounds.add(w.getDustSound());
+		}
+	}
+
 	public static float getCurrentVolume() {
 		return (doVanilla() ? 0.66F : intensityLevel) * ModOptions.soundLevel;
 	}
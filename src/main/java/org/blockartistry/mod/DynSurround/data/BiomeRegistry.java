@@ -42,13 +42,24 @@ import org.blockartistry.mod.DynSurround.util.MyUtils;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 public final class BiomeRegistry {
+	// Name keyed working set used while building the registry from the
+	// configs. Lookups go through the published Snapshot.
     public static final Map<String, BiomeRegistryEntry> registry = new HashMap<>();
 	private static final Map<String, String> biomeAliases = new HashMap<>();
 
@@ -99,6 +110,7 @@ public final class BiomeRegistry {
 
 		public int spotSoundChance;
 		public List<SoundEffect> spotSounds;
+		private SoundSelector spotSelector;
 
 		public BiomeRegistryEntry(final BiomeGenBase biome) {
 			this.biome = biome;
@@ -122,19 +134,18 @@ public final class BiomeRegistry {
 			}
 		}
 
-		public SoundEffect findSoundMatch(final String conditions) {
-			for (final SoundEffect sound : this.sounds)
-				if (sound.matches(conditions))
-					return sound;
-			return null;
+		// Created on first use since a config reset replaces the list
+		SoundSelector getSpotSelector() {
+			if (this.spotSelector == null)
+				this.spotSelector = new SoundSelector(this.spotSounds);
+			return this.spotSelector;
 		}
 
-		public List<SoundEffect> findSoundMatches(final String conditions) {
-			final List<SoundEffect> results = new ArrayList<>();
+		public SoundEffect findSoundMatch(final Conditions conditions) {
 			for (final SoundEffect sound : this.sounds)
 				if (sound.matches(conditions))
-					results.add(sound);
-			return results;
+					return sound;
+			return null;
 		}
 
 		@Override
@@ -181,6 +192,72 @@ public final class BiomeRegistry {
         }
     }
 
+	/*
+	 * Immutable view of the registry. Entries are indexed by biome ID, with
+	 * a separate table for the negative IDs of the fake biomes. Since some
+	 * mods (LOTR) reuse biome IDs the entry is only used if it belongs to
+	 * the same biome instance, otherwise the name map is consulted.
+	 */
+	private static final class Snapshot {
+
+		private static final int BIOME_IDS = 256;
+
+		private final BiomeRegistryEntry[] byId = new BiomeRegistryEntry[BIOME_IDS];
+		private final BiomeRegistryEntry[] fakeById = new BiomeRegistryEntry[BIOME_IDS + 1];
+		private final Map<String, BiomeRegistryEntry> byName;
+
+		Snapshot(final Map<String, BiomeRegistryEntry> entries) {
+			this.byName = new HashMap<>(entries);
+			for (final BiomeRegistryEntry entry : this.byName.values()) {
+				final int id = entry.biome.biomeID;
+				if (id >= 0 && id < BIOME_IDS)
+					this.byId[id] = entry;
+				else if (id < 0 && id >= -BIOME_IDS)
+					this.fakeById[-id] = entry;
+			}
+		}
+
+		Snapshot with(final BiomeRegistryEntry entry) {
+			final Map<String, BiomeRegistryEntry> entries = new HashMap<>(this.byName);
+			entries.put(entry.biome.biomeName, entry);
+			return new Snapshot(entries);
+		}
+
+		BiomeRegistryEntry find(final BiomeGenBase biome) {
+			final int id = biome.biomeID;
+			final BiomeRegistryEntry entry;
+			if (id >= 0 && id < BIOME_IDS)
+				entry = this.byId[id];
+			else if (id < 0 && id >= -BIOME_IDS)
+				entry = this.fakeById[-id];
+			else
+				entry = null;
+			if (entry != null && entry.biome == biome)
+				return entry;
+			return this.byName.get(biome.biomeName);
+		}
+	}
+
+	private static final Object snapshotLock = new Object();
+	private static volatile Snapshot snapshot = new Snapshot(registry);
+
+	// Entries handed out by getUnknown() that the published snapshot has to
+	// keep until a rebuild covers their biome. Guarded by snapshotLock.
+	private static final List<BiomeRegistryEntry> provisional = new ArrayList<>();
+
+	// Biomes that were handed a provisional entry and are waiting on the
+	// background rebuild. Unknowns seen within REBUILD_DELAY of each other
+	// are folded into a single rebuild.
+	private static final long REBUILD_DELAY = 1000;
+	private static final Set<BiomeGenBase> pending = new HashSet<>();
+	private static final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+	private static final AtomicBoolean reloadPending = new AtomicBoolean();
+	private static final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+		final Thread thread = new Thread(r, "DSurround Biome Registry");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public static String resolveName(final BiomeGenBase biome) {
 		if (biome == null)
 			return "(Bad Biome)";
@@ -190,6 +267,41 @@ public final class BiomeRegistry {
 	}
 
 	public static void initialize() {
+		build(Collections.emptyList());
+		MinecraftForge.EVENT_BUS.post(new RegistryReloadEvent.Biome());
+	}
+
+	/*
+	 * Posts the reload event for a background rebuild that has completed.
+	 * Listeners touch the sound system and client caches so this has to be
+	 * called from the client thread.
+	 */
+	public static void postPendingReload() {
+		if (reloadPending.getAndSet(false))
+			MinecraftForge.EVENT_BUS.post(new RegistryReloadEvent.Biome());
+	}
+
+	/*
+	 * Provisional entries added while the snapshot was being built are
+	 * carried over, otherwise their biomes would miss again and schedule
+	 * yet another rebuild.
+	 */
+	private static void publish(final Snapshot snap) {
+		synchronized (snapshotLock) {
+			Snapshot result = snap;
+			final Iterator<BiomeRegistryEntry> itr = provisional.iterator();
+			while (itr.hasNext()) {
+				final BiomeRegistryEntry entry = itr.next();
+				if (snap.find(entry.biome) != null)
+					itr.remove();
+				else
+					result = result.with(entry);
+			}
+			snapshot = result;
+		}
+	}
+
+	private static void build(final Collection<BiomeGenBase> extras) {
 		synchronized (registry) {
 			biomeAliases.clear();
 			for (final String entry : ModOptions.biomeAliases) {
@@ -241,6 +353,20 @@ public final class BiomeRegistry {
 
 			processConfig();
 
+			Snapshot built = new Snapshot(registry);
+			boolean added = false;
+			for (final BiomeGenBase biome : extras) {
+				if (built.find(biome) == null) {
+					ModLog.warn("Still can't find biome [%s]! Explicitly adding at defaults", resolveName(biome));
+					registry.put(biome.biomeName, new BiomeRegistryEntry(biome));
+					added = true;
+				}
+			}
+			if (added)
+				built = new Snapshot(registry);
+
+			publish(built);
+
 			if (ModOptions.enableDebugLogging) {
 				ModLog.info("*** BIOME REGISTRY ***");
                 registry
@@ -254,25 +380,56 @@ public final class BiomeRegistry {
 			// Free memory because we no longer need
 			biomeAliases.clear();
 		}
+	}
 
-		MinecraftForge.EVENT_BUS.post(new RegistryReloadEvent.Biome());
+	private static void rebuild() {
+		// Clear first so that unknowns seen during the rebuild schedule
+		// another pass rather than being dropped.
+		rebuildScheduled.set(false);
+		final List<BiomeGenBase> biomes;
+		synchronized (pending) {
+			biomes = new ArrayList<>(pending);
+			pending.clear();
+		}
+
+		try {
+			final long start = System.nanoTime();
+			build(biomes);
+			ModLog.info("Biome registry rebuilt in %d ms", (System.nanoTime() - start) / 1000000L);
+			reloadPending.set(true);
+		} catch (final Throwable t) {
+			ModLog.error("Unable to rebuild biome registry", t);
+		}
 	}
 
 	private static BiomeRegistryEntry get(final BiomeGenBase biome) {
-		synchronized (registry) {
-			BiomeRegistryEntry entry = registry.get(biome == null ? WTF.biomeName : biome.biomeName);
-			if (entry == null) {
-				ModLog.warn("Biome [%s] was not detected during initial scan! Reloading config...", resolveName(biome));
-				initialize();
-				entry = registry.get(biome.biomeName);
-				if (entry == null) {
-					ModLog.warn("Still can't find biome [%s]! Explicitly adding at defaults", resolveName(biome));
-					entry = new BiomeRegistryEntry(biome);
-					registry.put(biome.biomeName, entry);
-				}
-			}
-			return entry;
+		final BiomeGenBase theBiome = biome == null ? WTF : biome;
+		final BiomeRegistryEntry entry = snapshot.find(theBiome);
+		return entry != null ? entry : getUnknown(theBiome);
+	}
+
+	/*
+	 * Hands out a default entry right away and leaves the config processing
+	 * to a background rebuild, which swaps in a new snapshot when done.
+	 */
+	private static BiomeRegistryEntry getUnknown(final BiomeGenBase biome) {
+		final BiomeRegistryEntry entry;
+		synchronized (snapshotLock) {
+			final BiomeRegistryEntry existing = snapshot.find(biome);
+			if (existing != null)
+				return existing;
+			ModLog.warn("Biome [%s] was not detected during initial scan! Scheduling reload...", resolveName(biome));
+			entry = new BiomeRegistryEntry(biome);
+			provisional.add(entry);
+			snapshot = snapshot.with(entry);
+		}
+
+		synchronized (pending) {
+			pending.add(biome);
 		}
+		if (rebuildScheduled.compareAndSet(false, true))
+			rebuilder.schedule(BiomeRegistry::rebuild, REBUILD_DELAY, TimeUnit.MILLISECONDS);
+		return entry;
 	}
 
 	public static boolean hasDust(final BiomeGenBase biome) {
@@ -303,38 +460,34 @@ public final class BiomeRegistry {
 		return get(biome).fogDensity;
 	}
 
-	public static SoundEffect getSound(final BiomeGenBase biome, final String conditions) {
+	public static SoundEffect getSound(final BiomeGenBase biome, final Conditions conditions) {
 		return get(biome).findSoundMatch(conditions);
 	}
 
-	public static List<SoundEffect> getSounds(final BiomeGenBase biome, final String conditions) {
-		return get(biome).findSoundMatches(conditions);
+	/*
+	 * Returns the ambient sounds configured for the biome. The caller is
+	 * expected to filter against the current conditions and must not
+	 * modify the list.
+	 */
+	public static List<SoundEffect> getSounds(final BiomeGenBase biome) {
+		return get(biome).sounds;
+	}
+
+	public static void collectSounds(final Collection<String> sounds) {
+		for (final BiomeRegistryEntry entry : snapshot.byName.values()) {
+			for (final SoundEffect sound : entry.sounds)
+				sounds.add(sound.sound);
+			for (final SoundEffect sound : entry.spotSounds)
+				sounds.add(sound.sound);
+		}
 	}
 
-	public static SoundEffect getSpotSound(final BiomeGenBase biome, final String conditions, final Random random) {
+	public static SoundEffect getSpotSound(final BiomeGenBase biome, final Conditions conditions, final Random random) {
 		final BiomeRegistryEntry e = get(biome);
 		if (e.spotSounds.isEmpty() || random.nextInt(e.spotSoundChance) != 0)
 			return null;
 
-		int totalWeight = 0;
-		final List<SoundEffect> candidates = new ArrayList<>();
-		for (final SoundEffect s : e.spotSounds)
-			if (s.matches(conditions)) {
-				candidates.add(s);
-				totalWeight += s.weight;
-			}
-		if (totalWeight <= 0)
-			return null;
-
-		if (candidates.size() == 1)
-			return candidates.get(0);
-
-		int targetWeight = random.nextInt(totalWeight);
-		int i;
-		for (i = candidates.size(); (targetWeight -= candidates.get(i - 1).weight) >= 0; i--)
-			;
-
-		return candidates.get(i - 1);
+		return e.getSpotSelector().select(conditions, random);
 	}
 
 	private static void processConfig() {
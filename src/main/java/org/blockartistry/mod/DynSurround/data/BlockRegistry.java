@@ -26,10 +26,14 @@ package org.blockartistry.mod.DynSurround.data;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.blockartistry.mod.DynSurround.ModLog;
@@ -51,24 +55,47 @@ import net.minecraft.init.Blocks;
 
 public final class BlockRegistry {
 
+	public static final int GENERIC = -1;
+	private static final BlockEffect[] NO_EFFECTS = {};
+
+	// Entries as configured: one per block plus optional per metadata
+	// entries, which replace the block's entry for that metadata value
 	private static final Map<Block, Entry> registry = new IdentityHashMap<>();
+	private static final Map<Block, Entry[]> metaRegistry = new IdentityHashMap<>();
+	private static int version;
+
+	// Compiled lookup tables indexed by block ID << 4 | metadata
+	private static Entry[] table = {};
+	private static long[] active = {};
 
 	private static final class Entry implements Comparable<Entry> {
 		public final Block block;
+		public final int meta;
 		public int chance = 100;
 		public int stepChance = 100;
 		public final List<SoundEffect> sounds = new ArrayList<>();
 		public final List<SoundEffect> stepSounds = new ArrayList<>();
 		public final List<BlockEffect> effects = new ArrayList<>();
+		public final SoundSelector soundSelector = new SoundSelector(this.sounds);
+		public final SoundSelector stepSelector = new SoundSelector(this.stepSounds);
+		public BlockEffect[] effectTable = NO_EFFECTS;
 
-		public Entry(final Block block) {
+		public Entry(final Block block, final int meta) {
 			this.block = block;
+			this.meta = meta;
+		}
+
+		public boolean hasEffectsOrSounds() {
+			return this.effectTable.length > 0 || !this.sounds.isEmpty();
 		}
 
 		@Override
 		public String toString() {
 			final StringBuilder builder = new StringBuilder();
-			builder.append(String.format("Block [%s]:", this.block.getUnlocalizedName()));
+			if (this.meta == GENERIC)
+				builder.append(String.format("Block [%s]:", this.block.getUnlocalizedName()));
+			else
+				builder.append(String.format("Block [%s:%d]:", this.block.getUnlocalizedName(), this.meta));
 
 			if (!this.sounds.isEmpty()) {
 				builder.append(" chance:").append(this.chance);
@@ -105,59 +132,114 @@ public final class BlockRegistry {
 	public static void initialize() {
 
 		registry.clear();
+		metaRegistry.clear();
 		processConfig();
+		compile();
+		version++;
 
 		if (ModOptions.enableDebugLogging) {
 			ModLog.info("*** BLOCK REGISTRY ***");
-            registry
-                .values()
-                .stream()
+            entries()
                 .sorted()
                 .forEach(entry -> ModLog.info(entry.toString()))
             ;
 		}
 	}
 
-	public static List<BlockEffect> getEffects(final Block block) {
-		final Entry entry = registry.get(block);
-		return entry != null ? entry.effects : null;
+	private static Stream<Entry> entries() {
+		return Stream.concat(registry.values().stream(),
+				metaRegistry.values().stream().flatMap(Arrays::stream).filter(Objects::nonNull));
 	}
 
-	private static SoundEffect getRandomSound(final List<SoundEffect> list, final Random random,
-			final String conditions) {
-		int totalWeight = 0;
-		final List<SoundEffect> candidates = new ArrayList<>();
-		for (final SoundEffect s : list)
-			if (s.matches(conditions)) {
-				candidates.add(s);
-				totalWeight += s.weight;
-			}
-		if (totalWeight <= 0)
-			return null;
+	/*
+	 * Flattens the configured entries into tables indexed by block ID and
+	 * metadata so the per block lookups are plain array reads.
+	 */
+	private static void compile() {
+		int maxId = -1;
+		for (final Block block : registry.keySet())
+			maxId = Math.max(maxId, Block.getIdFromBlock(block));
+		for (final Block block : metaRegistry.keySet())
+			maxId = Math.max(maxId, Block.getIdFromBlock(block));
+
+		table = new Entry[(maxId + 1) << 4];
+		active = new long[(table.length + 63) >> 6];
+
+		entries().forEach(entry -> entry.effectTable = entry.effects.toArray(NO_EFFECTS));
+
+		for (final Entry entry : registry.values()) {
+			final int base = Block.getIdFromBlock(entry.block) << 4;
+			for (int meta = 0; meta < 16; meta++)
+				table[base | meta] = entry;
+		}
+		for (final Entry[] entries : metaRegistry.values())
+			for (final Entry entry : entries)
+				if (entry != null)
+					table[Block.getIdFromBlock(entry.block) << 4 | entry.meta] = entry;
+
+		for (int i = 0; i < table.length; i++)
+			if (table[i] != null && table[i].hasEffectsOrSounds())
+				active[i >> 6] |= 1L << i;
+	}
+
+	private static Entry lookup(final int id, final int meta) {
+		final int idx = id << 4 | (meta & 15);
+		return idx >= 0 && idx < table.length ? table[idx] : null;
+	}
 
-		if (candidates.size() == 1)
-			return candidates.get(0);
+	private static Entry lookup(final Block block, final int meta) {
+		return lookup(Block.getIdFromBlock(block), meta);
+	}
 
-		int targetWeight = random.nextInt(totalWeight);
-		int i;
-		for (i = candidates.size(); (targetWeight -= candidates.get(i - 1).weight) >= 0; i--)
-			;
+	/*
+	 * Bumped every time the registry is reloaded so that anything derived
+	 * from it knows to rebuild.
+	 */
+	public static int getVersion() {
+		return version;
+	}
 
-		return candidates.get(i - 1);
+	/*
+	 * Whether the block has random effects or sounds. Step sounds are not
+	 * considered since they are only played for the block under the player.
+	 */
+	public static boolean hasEffectsOrSounds(final int id, final int meta) {
+		final int idx = id << 4 | (meta & 15);
+		return idx >= 0 && idx < table.length && (active[idx >> 6] & (1L << idx)) != 0;
 	}
 
-	public static SoundEffect getSound(final Block block, final Random random, final String conditions) {
-		final Entry entry = registry.get(block);
+	public static boolean hasEffectsOrSounds(final Block block, final int meta) {
+		return hasEffectsOrSounds(Block.getIdFromBlock(block), meta);
+	}
+
+	public static BlockEffect[] getEffects(final Block block, final int meta) {
+		final Entry entry = lookup(block, meta);
+		return entry != null ? entry.effectTable : NO_EFFECTS;
+	}
+
+	public static void collectSounds(final Collection<String> sounds) {
+		entries().forEach(entry -> {
+			for (final SoundEffect sound : entry.sounds)
+				sounds.add(sound.sound);
+			for (final SoundEffect sound : entry.stepSounds)
+				sounds.add(sound.sound);
+		});
+	}
+
+	public static SoundEffect getSound(final Block block, final int meta, final Random random,
+			final Conditions conditions) {
+		final Entry entry = lookup(block, meta);
 		if (entry == null || entry.sounds.isEmpty() || random.nextInt(entry.chance) != 0)
 			return null;
-		return getRandomSound(entry.sounds, random, conditions);
+		return entry.soundSelector.select(conditions, random);
 	}
 
-	public static SoundEffect getStepSound(final Block block, final Random random, final String conditions) {
-		final Entry entry = registry.get(block);
+	public static SoundEffect getStepSound(final Block block, final int meta, final Random random,
+			final Conditions conditions) {
+		final Entry entry = lookup(block, meta);
 		if (entry == null || entry.stepSounds.isEmpty() || random.nextInt(entry.stepChance) != 0)
 			return null;
-		return getRandomSound(entry.stepSounds, random, conditions);
+		return entry.stepSelector.select(conditions, random);
 	}
 
 	private static void processConfig() {
@@ -198,23 +280,41 @@ public final class BlockRegistry {
 		}
 	}
 
+	private static Entry getOrCreate(final Block block, final int meta) {
+		if (meta == GENERIC)
+			return registry.computeIfAbsent(block, b -> new Entry(b, GENERIC));
+		final Entry[] entries = metaRegistry.computeIfAbsent(block, b -> new Entry[16]);
+		if (entries[meta] == null)
+			entries[meta] = new Entry(block, meta);
+		return entries[meta];
+	}
+
 	private static void process(final BlockConfig config) {
 		for (final BlockConfig.Entry entry : config.entries) {
 			if (entry.blocks.isEmpty())
 				continue;
 
-			for (final String blockName : entry.blocks) {
+			for (final String name : entry.blocks) {
+				// A trailing :<meta> selects a single metadata value
+				String blockName = name;
+				int meta = GENERIC;
+				final int idx = name.lastIndexOf(':');
+				if (idx > name.indexOf(':') && StringUtils.isNumeric(name.substring(idx + 1))) {
+					blockName = name.substring(0, idx);
+					meta = Integer.parseInt(name.substring(idx + 1));
+					if (meta > 15) {
+						ModLog.warn("Invalid metadata for block [%s] in block config file", name);
+						continue;
+					}
+				}
+
 				final Block block = GameData.getBlockRegistry().getObject(blockName);
 				if (block == null || block == Blocks.air) {
-					ModLog.warn("Unknown block [%s] in block config file", blockName);
+					ModLog.warn("Unknown block [%s] in block config file", name);
 					continue;
 				}
 
-				Entry blockData = registry.get(block);
-				if (blockData == null) {
-					blockData = new Entry(block);
-					registry.put(block, blockData);
-				}
+				final Entry blockData = getOrCreate(block, meta);
 
 				// Reset of a block clears all registry
 				if (entry.soundReset != null && entry.soundReset)
@@ -0,0 +1,339 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.DynSurround.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.blockartistry.mod.DynSurround.ModLog;
+
+/*
+ * Snapshot of the environmental condition tokens (hurt, raining, night,
+ * tcwarm, the season, etc.) for a tick. Each token is interned into a
+ * bit of a fixed 64 bit vector so that sound conditions can be evaluated
+ * with a couple of mask operations. The legacy "#token#token#" string form
+ * is only rebuilt when the token set changes, and is used for display and
+ * for condition regexes that cannot be expressed as a bitmask.
+ */
+public final class Conditions {
+
+	public static final int MAX_TOKENS = 64;
+	private static final char CONDITION_SEPARATOR = '#';
+
+	private static final Map<String, Integer> tokens = new HashMap<>();
+	private static final String[] names = new String[MAX_TOKENS];
+	private static final Set<String> exhausted = new HashSet<>();
+
+	public static final Conditions EMPTY = new Conditions(0, "");
+
+	private final long mask;
+	private final String text;
+
+	private Conditions(final long mask, final String text) {
+		this.mask = mask;
+		this.text = text;
+	}
+
+	public long getMask() {
+		return this.mask;
+	}
+
+	@Override
+	public String toString() {
+		return this.text;
+	}
+
+	/*
+	 * Returns the bit assigned to the token, assigning a new one if needed.
+	 * Tokens are case insensitive. Returns -1 if the bit vector is
+	 * exhausted, in which case the token is only visible to regex
+	 * conditions.
+	 */
+	public static int intern(final String token) {
+		final String key = token.toLowerCase();
+		synchronized (tokens) {
+			final Integer bit = tokens.get(key);
+			if (bit != null)
+				return bit;
+			final int size = tokens.size();
+			if (size >= MAX_TOKENS) {
+				if (exhausted.add(key))
+					ModLog.warn("Condition token space exhausted; [%s] will only match regex conditions", token);
+				return -1;
+			}
+			tokens.put(key, size);
+			names[size] = token;
+			return size;
+		}
+	}
+
+	/*
+	 * Returns the bit already assigned to the token, or -1 if there is
+	 * none. Does not assign one.
+	 */
+	public static int lookup(final String token) {
+		final String key = token.toLowerCase();
+		synchronized (tokens) {
+			final Integer bit = tokens.get(key);
+			return bit != null ? bit : -1;
+		}
+	}
+
+	/*
+	 * Assembles a Conditions instance during a tick. The same instance is
+	 * returned from build() as long as the token sequence does not change,
+	 * so the steady state does not allocate.
+	 */
+	public static final class Builder {
+
+		private String[] current = new String[16];
+		private int count;
+		private long mask;
+
+		private String[] last = new String[16];
+		private int lastCount = -1;
+		private Conditions result = EMPTY;
+
+		public Builder begin() {
+			this.count = 0;
+			this.mask = 0;
+			return this;
+		}
+
+		private void push(final String token) {
+			if (this.count == this.current.length)
+				this.current = Arrays.copyOf(this.current, this.count * 2);
+			this.current[this.count++] = token;
+		}
+
+		public Builder add(final int bit) {
+			this.mask |= 1L << bit;
+			push(names[bit]);
+			return this;
+		}
+
+		/*
+		 * Runtime tokens such as the dimension name only get a bit if a
+		 * condition refers to them, which interns them when the filter is
+		 * compiled. Others show up in the string form only.
+		 */
+		public Builder add(final String token) {
+			final int bit = lookup(token);
+			if (bit >= 0)
+				this.mask |= 1L << bit;
+			push(token);
+			return this;
+		}
+
+		/*
+		 * Closes a group of tokens. Mirrors the trailing separator that
+		 * each contributor used to append to the condition string.
+		 */
+		public Builder endGroup() {
+			push(null);
+			return this;
+		}
+
+		public Conditions build() {
+			if (this.mask != this.result.mask || !sameSequence()) {
+				final StringBuilder builder = new StringBuilder();
+				for (int i = 0; i < this.count; i++) {
+					builder.append(CONDITION_SEPARATOR);
+					if (this.current[i] != null)
+						builder.append(this.current[i]);
+				}
+				this.result = new Conditions(this.mask, builder.toString());
+
+				if (this.last.length < this.current.length)
+					this.last = new String[this.current.length];
+				System.arraycopy(this.current, 0, this.last, 0, this.count);
+				this.lastCount = this.count;
+			}
+			return this.result;
+		}
+
+		private boolean sameSequence() {
+			if (this.count != this.lastCount)
+				return false;
+			for (int i = 0; i < this.count; i++)
+				if (!StringUtils.equals(this.current[i], this.last[i]))
+					return false;
+			return true;
+		}
+	}
+
+	/*
+	 * Compiled form of a condition regex. Patterns of the shape used by the
+	 * configs:
+	 *
+	 * (?i)(?!.*#a#.*|.*#b#.*)(.*#c#.*)
+	 * (?i)(.*#a#.*|.*#b#.*)
+	 * .*
+	 *
+	 * become a required/forbidden/any-of set of bits. Anything else falls
+	 * back to a regex match against the condition string, including
+	 * sequences of more than one token since ".*#c#.*#d#.*" only matches
+	 * when c comes before d, and lookaheads followed by an alternation that
+	 * is not in parentheses since they only apply to the first branch.
+	 */
+	public static final class Filter {
+
+		public static final Filter ALWAYS = new Filter(0, 0, 0, null);
+
+		private static final String CASE_INSENSITIVE = "(?i)";
+		private static final String NEGATIVE_LOOKAHEAD = "(?!";
+		private static final String WILDCARD = ".*";
+
+		private final long required;
+		private final long forbidden;
+		private final long anyOf;
+		private final Pattern pattern;
+
+		private Filter(final long required, final long forbidden, final long anyOf, final Pattern pattern) {
+			this.required = required;
+			this.forbidden = forbidden;
+			this.anyOf = anyOf;
+			this.pattern = pattern;
+		}
+
+		public boolean matches(final Conditions conditions) {
+			if (this.pattern != null)
+				return this.pattern.matcher(conditions.text).matches();
+			final long m = conditions.mask;
+			return (m & this.required) == this.required && (m & this.forbidden) == 0
+					&& (this.anyOf == 0 || (m & this.anyOf) != 0);
+		}
+
+		public boolean isRegex() {
+			return this.pattern != null;
+		}
+
+		public static Filter compile(final String regex) {
+			final Filter filter = parse(regex);
+			return filter != null ? filter : new Filter(0, 0, 0, Pattern.compile(regex));
+		}
+
+		private static Filter parse(final String regex) {
+			String s = regex.trim();
+			final boolean caseInsensitive = s.startsWith(CASE_INSENSITIVE);
+			if (caseInsensitive)
+				s = s.substring(CASE_INSENSITIVE.length());
+
+			long forbidden = 0;
+			boolean lookahead = false;
+			while (s.startsWith(NEGATIVE_LOOKAHEAD)) {
+				lookahead = true;
+				final int end = s.indexOf(')');
+				if (end < 0)
+					return null;
+				for (final String term : StringUtils.split(s.substring(NEGATIVE_LOOKAHEAD.length(), end), '|')) {
+					final long bits = sequence(term);
+					if (Long.bitCount(bits) != 1)
+						return null;
+					forbidden |= bits;
+				}
+				s = s.substring(end + 1);
+			}
+
+			final boolean grouped = s.startsWith("(") && s.endsWith(")");
+			if (grouped)
+				s = s.substring(1, s.length() - 1);
+			if (s.indexOf('(') >= 0 || s.indexOf(')') >= 0)
+				return null;
+			if (lookahead && !grouped && s.indexOf('|') >= 0)
+				return null;
+
+			long required = 0;
+			long anyOf = 0;
+			final String[] alternatives = StringUtils.split(s, '|');
+			if (alternatives.length == 0) {
+				return null;
+			} else if (alternatives.length == 1) {
+				required = sequence(alternatives[0]);
+				if (required == -1 || Long.bitCount(required) > 1)
+					return null;
+			} else {
+				for (final String alt : alternatives) {
+					final long bits = sequence(alt);
+					if (Long.bitCount(bits) != 1)
+						return null;
+					anyOf |= bits;
+				}
+			}
+
+			if ((required | forbidden | anyOf) == 0)
+				return ALWAYS;
+
+			// Case sensitive token matching cannot be expressed as bits
+			if (!caseInsensitive)
+				return null;
+
+			return new Filter(required, forbidden, anyOf, null);
+		}
+
+		/*
+		 * Parses ".*#a#.*#b#.*" into the bits for a and b. Returns -1 if the
+		 * text does not have that shape.
+		 */
+		private static long sequence(final String text) {
+			if (!text.startsWith(WILDCARD))
+				return -1;
+
+			long bits = 0;
+			int idx = WILDCARD.length();
+			while (idx < text.length()) {
+				if (text.charAt(idx) != CONDITION_SEPARATOR)
+					return -1;
+				final int end = text.indexOf(CONDITION_SEPARATOR, idx + 1);
+				if (end < 0 || !text.startsWith(WILDCARD, end + 1))
+					return -1;
+				final String token = text.substring(idx + 1, end);
+				if (!isLiteral(token))
+					return -1;
+				final int bit = intern(token);
+				if (bit < 0)
+					return -1;
+				bits |= 1L << bit;
+				idx = end + 1 + WILDCARD.length();
+			}
+			return bits;
+		}
+
+		private static boolean isLiteral(final String token) {
+			if (token.isEmpty())
+				return false;
+			for (int i = 0; i < token.length(); i++) {
+				final char c = token.charAt(i);
+				if (!Character.isLetterOrDigit(c) && c != '_' && c != ' ' && c != '-')
+					return false;
+			}
+			return true;
+		}
+	}
+}
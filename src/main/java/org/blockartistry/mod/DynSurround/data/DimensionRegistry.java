@@ -293,24 +293,20 @@ public final class DimensionRegistry implements Comparable<DimensionRegistry> {
 		return getData(world).getSeason();
 	}
 
-	private static final String CONDITION_TOKEN_RAINING = "raining";
-	private static final String CONDITION_TOKEN_DAY = "day";
-	private static final String CONDITION_TOKEN_NIGHT = "night";
-	private static final char CONDITION_SEPARATOR = '#';
-
-	public static String getConditions(final World world) {
-		final StringBuilder builder = new StringBuilder();
-		builder.append(CONDITION_SEPARATOR);
+	private static final int CONDITION_RAINING = Conditions.intern("raining");
+	private static final int CONDITION_DAY = Conditions.intern("day");
+	private static final int CONDITION_NIGHT = Conditions.intern("night");
+
+	public static void getConditions(final World world, final Conditions.Builder builder) {
 		if (DiurnalUtils.isDaytime(world))
-			builder.append(CONDITION_TOKEN_DAY);
+			builder.add(CONDITION_DAY);
 		else
-			builder.append(CONDITION_TOKEN_NIGHT);
-		builder.append(CONDITION_SEPARATOR).append(world.provider.getDimensionName());
+			builder.add(CONDITION_NIGHT);
+		builder.add(world.provider.getDimensionName());
 		if (world.getRainStrength(1.0F) > 0.0F)
-			builder.append(CONDITION_SEPARATOR).append(CONDITION_TOKEN_RAINING);
-		builder.append(CONDITION_SEPARATOR).append(getSeason(world));
-		builder.append(CONDITION_SEPARATOR);
-		return builder.toString();
+			builder.add(CONDITION_RAINING);
+		builder.add(getSeason(world));
+		builder.endGroup();
 	}
 
 	@Override
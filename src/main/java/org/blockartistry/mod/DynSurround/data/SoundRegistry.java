@@ -25,6 +25,8 @@ package org.blockartistry.mod.DynSurround.data;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
@@ -34,10 +36,35 @@ import org.blockartistry.mod.DynSurround.event.SoundConfigEvent;
 
 import gnu.trove.impl.Constants;
 import gnu.trove.map.hash.TObjectFloatHashMap;
+import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
 
 public final class SoundRegistry {
 
+	/*
+	 * What the per play code paths need to know about a sound. Resolved
+	 * once per sound name after the sound configuration is (re)loaded so
+	 * that playing a sound does not have to format or match its name.
+	 */
+	public static final class Decision {
+		public final boolean blocked;
+		public final boolean culled;
+		public final float volumeScale;
+
+		// Tick the sound last made it past the culling window
+		public volatile int lastPlayed;
+
+		private Decision(final boolean blocked, final boolean culled, final float volumeScale) {
+			this.blocked = blocked;
+			this.culled = culled;
+			this.volumeScale = volumeScale;
+			this.lastPlayed = -ModOptions.soundCullingThreshold;
+		}
+	}
+
+	// Resolved wherever a sound is played, which is not always the client thread
+	private static final Map<ResourceLocation, Decision> decisions = new ConcurrentHashMap<>();
+
 	private static final List<Pattern> cullSoundNamePatterns = new ArrayList<>();
 	private static final List<Pattern> blockSoundNamePatterns = new ArrayList<>();
 	private static final TObjectFloatHashMap<String> volumeControl = new TObjectFloatHashMap<>(
@@ -47,6 +74,7 @@ public final class SoundRegistry {
 		cullSoundNamePatterns.clear();
 		blockSoundNamePatterns.clear();
 		volumeControl.clear();
+		decisions.clear();
 
 		for (final String sound : ModOptions.culledSounds) {
 			try {
@@ -101,4 +129,17 @@ public final class SoundRegistry {
 		return volumeControl.get(soundName);
 	}
 
+	public static Decision getDecision(final ResourceLocation resource) {
+		Decision decision = decisions.get(resource);
+		if (decision == null) {
+			final String name = resource.toString();
+			final boolean blocked = isSoundBlocked(name);
+			decision = new Decision(blocked, !blocked && isSoundCulled(name), getVolumeScale(name));
+			final Decision existing = decisions.putIfAbsent(resource, decision);
+			if (existing != null)
+				decision = existing;
+		}
+		return decision;
+	}
+
 }
@@ -0,0 +1,155 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.DynSurround.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.blockartistry.mod.DynSurround.client.sound.SoundEffect;
+
+/*
+ * Weighted random selection over a list of sounds. For each distinct
+ * condition state a Walker/Vose alias table of the matching sounds is
+ * built once, so a pick is two random draws and does not allocate. The
+ * Conditions instance is reused while the state is unchanged so the last
+ * table is found with an identity check; other states are cached by their
+ * condition string.
+ */
+final class SoundSelector {
+
+	private static final int MAX_STATES = 16;
+
+	private final List<SoundEffect> sounds;
+	private final Map<String, Table> tables = new HashMap<>();
+	private Conditions lastConditions;
+	private Table lastTable;
+
+	SoundSelector(final List<SoundEffect> sounds) {
+		this.sounds = sounds;
+	}
+
+	public SoundEffect select(final Conditions conditions, final Random random) {
+		if (conditions != this.lastConditions) {
+			this.lastTable = getTable(conditions);
+			this.lastConditions = conditions;
+		}
+		return this.lastTable.select(random);
+	}
+
+	private Table getTable(final Conditions conditions) {
+		final String key = conditions.toString();
+		Table table = this.tables.get(key);
+		if (table == null) {
+			if (this.tables.size() >= MAX_STATES)
+				this.tables.clear();
+			table = Table.build(this.sounds, conditions);
+			this.tables.put(key, table);
+		}
+		return table;
+	}
+
+	private static final class Table {
+
+		private static final Table EMPTY = new Table(new SoundEffect[0], null, null);
+
+		private final SoundEffect[] sounds;
+		private final float[] probability;
+		private final int[] alias;
+
+		private Table(final SoundEffect[] sounds, final float[] probability, final int[] alias) {
+			this.sounds = sounds;
+			this.probability = probability;
+			this.alias = alias;
+		}
+
+		public SoundEffect select(final Random random) {
+			final int n = this.sounds.length;
+			if (n == 0)
+				return null;
+			if (n == 1)
+				return this.sounds[0];
+			final int i = random.nextInt(n);
+			return random.nextFloat() < this.probability[i] ? this.sounds[i] : this.sounds[this.alias[i]];
+		}
+
+		public static Table build(final List<SoundEffect> list, final Conditions conditions) {
+			final List<SoundEffect> candidates = new ArrayList<>();
+			long totalWeight = 0;
+			for (final SoundEffect s : list)
+				if (s.weight > 0 && s.matches(conditions)) {
+					candidates.add(s);
+					totalWeight += s.weight;
+				}
+
+			final int n = candidates.size();
+			if (n == 0)
+				return EMPTY;
+
+			final SoundEffect[] sounds = candidates.toArray(new SoundEffect[n]);
+			if (n == 1)
+				return new Table(sounds, null, null);
+
+			// Vose: scale each weight so the average is 1, then pair each
+			// under-full column with an over-full one.
+			final double[] scaled = new double[n];
+			final int[] small = new int[n];
+			final int[] large = new int[n];
+			int smallCount = 0;
+			int largeCount = 0;
+			for (int i = 0; i < n; i++) {
+				scaled[i] = (double) sounds[i].weight * n / totalWeight;
+				if (scaled[i] < 1.0D)
+					small[smallCount++] = i;
+				else
+					large[largeCount++] = i;
+			}
+
+			final float[] probability = new float[n];
+			final int[] alias = new int[n];
+			while (smallCount > 0 && largeCount > 0) {
+				final int less = small[--smallCount];
+				final int more = large[--largeCount];
+				probability[less] = (float) scaled[less];
+				alias[less] = more;
+				scaled[more] = (scaled[more] + scaled[less]) - 1.0D;
+				if (scaled[more] < 1.0D)
+					small[smallCount++] = more;
+				else
+					large[largeCount++] = more;
+			}
+
+			// Whatever is left is full, give or take rounding
+			while (largeCount > 0)
+				probability[large[--largeCount]] = 1.0F;
+			while (smallCount > 0)
+				probability[small[--smallCount]] = 1.0F;
+
+			return new Table(sounds, probability, alias);
+		}
+	}
+}
@@ -45,6 +45,9 @@ public class DynamicSurroundingsEarlyMixins implements IFMLLoadingPlugin, IEarly
                 mixins.add("MixinEntityRenderer");
             }
             mixins.add("MixinSoundManager");
+            if (ModOptions.enableParticlePooling) {
+                mixins.add("MixinEffectRenderer");
+            }
             //Sound engine crash patches
             mixins.add("MixinPaulsCodeSource");
             mixins.add("MixinPaulsCodeSoundLibrary");
@@ -0,0 +1,27 @@
+package org.blockartistry.mod.DynSurround.mixins.early;
+
+import net.minecraft.client.particle.EffectRenderer;
+import org.blockartistry.mod.DynSurround.client.fx.particle.ParticlePool;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import java.util.List;
+
+@Mixin(EffectRenderer.class)
+public abstract class MixinEffectRenderer {
+
+    /**
+     * Dead particles are dropped from the layer lists here, which is the last
+     * reference the renderer holds. Hands pooled ones back to their pool. Not
+     * required so that a renderer replaced by another mod only loses pooling.
+     */
+    @Redirect(method = "updateEffects()V",
+        at = @At(value = "INVOKE", target = "Ljava/util/List;remove(I)Ljava/lang/Object;", remap = false),
+        require = 0)
+    private Object recycleParticle(List<Object> instance, int index) {
+        final Object fx = instance.remove(index);
+        ParticlePool.recycle(fx);
+        return fx;
+    }
+}
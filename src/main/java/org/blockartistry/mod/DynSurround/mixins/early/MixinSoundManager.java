@@ -4,7 +4,9 @@ import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.SoundCategory;
 import net.minecraft.client.audio.SoundManager;
 import net.minecraft.client.audio.SoundPoolEntry;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.ResourceLocation;
+import org.blockartistry.mod.DynSurround.client.sound.SoundCommandQueue;
 import org.blockartistry.mod.DynSurround.client.sound.cache.SoundCache;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
@@ -69,4 +71,111 @@ public abstract class MixinSoundManager {
     private void flushSound(ISound p_148611_1_, CallbackInfo ci) {
         org.blockartistry.mod.DynSurround.client.sound.SoundManager.flushSound();
     }
+
+    /**
+     * this.playingSounds.put(s, sound) is where vanilla maps the new source
+     * to the sound, after the source has been started. Track it so the mod
+     * knows which of its sounds are playing without searching playingSounds.
+     */
+    @Redirect(method = "playSound(Lnet/minecraft/client/audio/ISound;)V",
+        at = @At(value = "INVOKE", target = "Ljava/util/Map;put(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;"
+            , ordinal = 1,
+            remap = false))
+    private Object trackPlayingSound(Map<Object, Object> instance, Object k, Object v) {
+        final Object result = instance.put(k, v);
+        if (k instanceof String source && v instanceof ISound sound) {
+            org.blockartistry.mod.DynSurround.client.sound.SoundManager.soundSubmitted(source, sound);
+        }
+        return result;
+    }
+
+    /**
+     * this.playingSoundsStopTime.remove(s) is called when a finished source
+     * is released.
+     */
+    @Redirect(method = "updateAllSounds()V",
+        at = @At(value = "INVOKE", target = "Ljava/util/Map;remove(Ljava/lang/Object;)Ljava/lang/Object;"
+            , ordinal = 0,
+            remap = false))
+    private Object releaseSource(Map<Object, Object> instance, Object k) {
+        final Object result = instance.remove(k);
+        if (k instanceof String source) {
+            org.blockartistry.mod.DynSurround.client.sound.SoundManager.soundReleased(source);
+        }
+        return result;
+    }
+
+    /*
+     * Calls made off the client thread are queued and replayed by
+     * updateAllSounds() so that the sound system is only driven from the
+     * client thread.
+     */
+    @Inject(method = "playSound(Lnet/minecraft/client/audio/ISound;)V", at = @At("HEAD"), cancellable = true)
+    private void queuePlaySound(ISound sound, CallbackInfo ci) {
+        if (SoundCommandQueue.defer(() -> ((SoundManager) (Object) this).playSound(sound))) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "addDelayedSound(Lnet/minecraft/client/audio/ISound;I)V", at = @At("HEAD"), cancellable = true)
+    private void queueDelayedSound(ISound sound, int delay, CallbackInfo ci) {
+        if (SoundCommandQueue.defer(() -> ((SoundManager) (Object) this).addDelayedSound(sound, delay))) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "stopSound(Lnet/minecraft/client/audio/ISound;)V", at = @At("HEAD"), cancellable = true)
+    private void queueStopSound(ISound sound, CallbackInfo ci) {
+        if (SoundCommandQueue.defer(() -> ((SoundManager) (Object) this).stopSound(sound))) {
+            ci.cancel();
+        } else {
+            org.blockartistry.mod.DynSurround.client.sound.SoundManager.soundStopped(sound);
+        }
+    }
+
+    @Inject(method = "updateAllSounds()V", at = @At("HEAD"), cancellable = true)
+    private void drainCommands(CallbackInfo ci) {
+        if (SoundCommandQueue.defer(((SoundManager) (Object) this)::updateAllSounds)) {
+            ci.cancel();
+        } else {
+            SoundCommandQueue.drain();
+        }
+    }
+
+    @Inject(method = "stopAllSounds()V", at = @At("HEAD"), cancellable = true)
+    private void clearSounds(CallbackInfo ci) {
+        if (SoundCommandQueue.defer(((SoundManager) (Object) this)::stopAllSounds)) {
+            ci.cancel();
+        } else {
+            org.blockartistry.mod.DynSurround.client.sound.SoundManager.soundsCleared();
+        }
+    }
+
+    @Inject(method = "pauseAllSounds()V", at = @At("HEAD"), cancellable = true)
+    private void queuePauseAllSounds(CallbackInfo ci) {
+        if (SoundCommandQueue.defer(((SoundManager) (Object) this)::pauseAllSounds)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "resumeAllSounds()V", at = @At("HEAD"), cancellable = true)
+    private void queueResumeAllSounds(CallbackInfo ci) {
+        if (SoundCommandQueue.defer(((SoundManager) (Object) this)::resumeAllSounds)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "setListener(Lnet/minecraft/entity/player/EntityPlayer;F)V", at = @At("HEAD"), cancellable = true)
+    private void queueSetListener(EntityPlayer player, float partialTicks, CallbackInfo ci) {
+        if (SoundCommandQueue.defer(() -> ((SoundManager) (Object) this).setListener(player, partialTicks))) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "setSoundCategoryVolume(Lnet/minecraft/client/audio/SoundCategory;F)V", at = @At("HEAD"), cancellable = true)
+    private void queueSetSoundCategoryVolume(SoundCategory category, float volume, CallbackInfo ci) {
+        if (SoundCommandQueue.defer(() -> ((SoundManager) (Object) this).setSoundCategoryVolume(category, volume))) {
+            ci.cancel();
+        }
+    }
 }
@@ -34,7 +34,9 @@ import org.blockartistry.mod.DynSurround.client.ClientEffectHandler;
 import org.blockartistry.mod.DynSurround.client.footsteps.game.system.ForgeDictionary;
 import org.blockartistry.mod.DynSurround.client.footsteps.game.user.GenerateBlockReport;
 import org.blockartistry.mod.DynSurround.client.hud.GuiHUDHandler;
+import org.blockartistry.mod.DynSurround.client.sound.SoundCommandQueue;
 import org.blockartistry.mod.DynSurround.client.sound.SoundManager;
+import org.blockartistry.mod.DynSurround.client.sound.cache.SoundWarmup;
 import org.blockartistry.mod.DynSurround.data.BlockRegistry;
 import org.blockartistry.mod.DynSurround.data.SoundRegistry;
 
@@ -62,6 +64,8 @@ public class ProxyClient extends Proxy {
 		GuiHUDHandler.initialize();
 		SoundRegistry.initialize();
 		SoundManager.configureSound();
+		SoundCommandQueue.setOwner(Thread.currentThread());
+		SoundWarmup.register();
 	}
 
 	@Override